@@ -0,0 +1,21 @@
+package com.chess.benchmarks;
+
+import com.chess.board.Position;
+
+// Fixed positions every benchmark runs on, so results stay comparable between runs
+final class BenchmarkPositions {
+    static final String OPENING = "r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 0 4";
+    static final String MIDDLEGAME = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+    static final String ENDGAME = "8/5k2/3p4/1p1Pp2p/pP2Pp1P/P4P1K/8/8 b - - 99 50";
+
+    private BenchmarkPositions() {}
+
+    static Position byName(String name) {
+        switch (name) {
+            case "opening": return Position.fromFen(OPENING);
+            case "middlegame": return Position.fromFen(MIDDLEGAME);
+            case "endgame": return Position.fromFen(ENDGAME);
+            default: throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        }
+    }
+}
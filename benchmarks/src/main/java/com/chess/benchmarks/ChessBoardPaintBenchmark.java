@@ -0,0 +1,46 @@
+package com.chess.benchmarks;
+
+import com.chess.game.Game;
+import com.chess.ui.ChessBoard;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ChessBoardPaintBenchmark {
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private ChessBoard board;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        board = ChessBoard.create(new Game());
+        BenchmarkPositions.byName(position).copyTo(board.getSquares());
+        Dimension size = board.getPreferredSize();
+        board.setSize(size);
+        image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        // The border is drawn too, a fixed and small part of the cost
+        board.paint(graphics);
+        return image;
+    }
+}
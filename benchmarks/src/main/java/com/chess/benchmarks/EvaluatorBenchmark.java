@@ -0,0 +1,92 @@
+package com.chess.benchmarks;
+
+import com.chess.board.MoveGenerator;
+import com.chess.board.PieceSquareTables;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.engine.Evaluator;
+import com.chess.pieces.Piece;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Evaluations per second. evaluate reads the material and piece-square sums
+// the position keeps up to date; squareScan adds them up again from the 64
+// Squares of the board, which is what every call would cost without them.
+// evaluateAll scores a batch of positions reached from the chosen one.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+    private static final int BATCH = 1024;
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private final Evaluator evaluator = new Evaluator();
+    private Position start;
+    private Square[][] board;
+    private Position[] batch;
+    private int[] scores;
+
+    @Setup
+    public void setup() {
+        start = BenchmarkPositions.byName(position);
+        board = start.toSquares();
+
+        // A few random moves away from the start, the same ones every run
+        Random random = new Random(42);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        batch = new Position[BATCH];
+        scores = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            Position next = BenchmarkPositions.byName(position);
+            for (int ply = random.nextInt(8); ply > 0; ply--) {
+                int count = MoveGenerator.generateLegalMoves(next, moves);
+                if (count == 0) {
+                    break;
+                }
+                next.makeMove(moves[random.nextInt(count)]);
+            }
+            batch[i] = next;
+        }
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return evaluator.evaluate(start);
+    }
+
+    @Benchmark
+    public int squareScan() {
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (Square[] row : board) {
+            for (Square square : row) {
+                Piece piece = square.getPiece();
+                if (piece != null) {
+                    int code = Position.pieceOf(piece);
+                    int index = Position.squareOf(square.getRow(), square.getCol());
+                    midgame += PieceSquareTables.midgame(code, index);
+                    endgame += PieceSquareTables.endgame(code, index);
+                    phase += PieceSquareTables.phase(code);
+                }
+            }
+        }
+        phase = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void evaluateAll(Blackhole blackhole) {
+        evaluator.evaluateAll(batch, BATCH, scores);
+        blackhole.consume(scores);
+    }
+}
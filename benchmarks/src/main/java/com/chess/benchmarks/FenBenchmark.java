@@ -0,0 +1,62 @@
+package com.chess.benchmarks;
+
+import com.chess.board.FenReader;
+import com.chess.board.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+    private static final int FILE_LINES = 10_000;
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private String fen;
+    private String file;
+    private final Position target = new Position();
+    private final StringBuilder output = new StringBuilder(128);
+
+    @Setup
+    public void setup() {
+        fen = BenchmarkPositions.byName(position).toFen();
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < FILE_LINES; i++) {
+            lines.append(fen).append('\n');
+        }
+        file = lines.toString();
+    }
+
+    @Benchmark
+    public long loadFen() {
+        target.loadFen(fen);
+        return target.getKey();
+    }
+
+    @Benchmark
+    public int appendFen() {
+        output.setLength(0);
+        return target.appendFen(output).length();
+    }
+
+    // Lines per second through FenReader, the path used for bulk files
+    @Benchmark
+    @OperationsPerInvocation(FILE_LINES)
+    public long readLines() throws IOException {
+        long keys = 0;
+        try (FenReader reader = new FenReader(new StringReader(file))) {
+            while (reader.next(target)) {
+                keys ^= target.getKey();
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,65 @@
+package com.chess.benchmarks;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.game.GameRules;
+import com.chess.players.Player;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameRulesBenchmark {
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private GameRules gameRules;
+    private Square[][] board;
+    private Player player;
+    private Square from;
+    private Square to;
+
+    @Setup
+    public void setup() {
+        Position start = BenchmarkPositions.byName(position);
+        gameRules = GameRules.getInstance();
+        board = start.toSquares();
+        player = Position.playerOf(start.getSideToMove());
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        MoveGenerator.generateLegalMoves(start, moves);
+        from = squareAt(Move.from(moves[0]));
+        to = squareAt(Move.to(moves[0]));
+    }
+
+    private Square squareAt(int square) {
+        return board[Position.rowOf(square)][Position.colOf(square)];
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return gameRules.isKingInCheck(player, board);
+    }
+
+    @Benchmark
+    public boolean wouldMoveLeaveKingInCheck() {
+        return gameRules.wouldMoveLeaveKingInCheck(from, to, board);
+    }
+
+    @Benchmark
+    public boolean isCheckmate() {
+        return gameRules.isCheckmate(player, board);
+    }
+
+    @Benchmark
+    public boolean isStalemate() {
+        return gameRules.isStalemate(player, board);
+    }
+}
@@ -0,0 +1,59 @@
+package com.chess.benchmarks;
+
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.pieces.Piece;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Asks every piece of one kind about all 64 destinations, which is how the
+// rules probe the movement strategies.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementStrategyBenchmark {
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    @Param({"Pawn", "Knight", "Bishop", "Rook", "Queen", "King"})
+    public String piece;
+
+    private Square[][] board;
+    private Square[] origins;
+
+    @Setup
+    public void setup() {
+        board = BenchmarkPositions.byName(position).toSquares();
+        List<Square> squares = new ArrayList<>();
+        for (Square[] row : board) {
+            for (Square square : row) {
+                if (square.getPiece() != null && square.getPiece().getName().equals(piece)) {
+                    squares.add(square);
+                }
+            }
+        }
+        origins = squares.toArray(new Square[0]);
+    }
+
+    @Benchmark
+    public int isValidMove() {
+        int valid = 0;
+        for (Square from : origins) {
+            Piece moving = from.getPiece();
+            for (Square[] row : board) {
+                for (Square to : row) {
+                    if (to != from && moving.isValidMove(from, to, board)) {
+                        valid++;
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,55 @@
+package com.chess.benchmarks;
+
+import com.chess.board.Position;
+import com.chess.engine.ParallelSearch;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchResult;
+import com.chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Time to reach a fixed depth with 1..N threads sharing one table. Run with
+// -p threads=1,2,3,... to cover every core; "all" uses every available processor.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParallelSearchBenchmark {
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    @Param({"1", "2", "4", "8", "all"})
+    public String threads;
+
+    @Param({"7"})
+    public int depth;
+
+    private Position root;
+    private ParallelSearch search;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        root = BenchmarkPositions.byName(position);
+        int count = threads.equals("all") ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(threads);
+        search = new ParallelSearch(count, new TranspositionTable(64));
+    }
+
+    // Every measurement starts from an empty table
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTable().clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.shutdown();
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return search.search(root, SearchLimits.depth(depth));
+    }
+}
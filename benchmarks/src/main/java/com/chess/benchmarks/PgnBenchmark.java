@@ -0,0 +1,90 @@
+package com.chess.benchmarks;
+
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnValidator;
+import com.chess.pgn.PgnWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Games per second: splitting the stream alone, and the full replay on a worker pool
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgnBenchmark {
+    private static final int GAMES = 2_000;
+    private static final int MAX_PLIES = 160;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private byte[] archive;
+
+    // Random legal games from a fixed seed, so every run reads the same file
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(1);
+        Position position = new Position();
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[MAX_PLIES];
+        StringWriter out = new StringWriter();
+        PgnWriter writer = new PgnWriter(out);
+
+        for (int game = 0; game < GAMES; game++) {
+            position.loadFen(Position.START_FEN);
+            int plies = 0;
+            while (plies < MAX_PLIES) {
+                int count = MoveGenerator.generateLegalMoves(position, buffer);
+                if (count == 0) {
+                    break;
+                }
+                moves[plies] = buffer[random.nextInt(count)];
+                position.makeMove(moves[plies++]);
+            }
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "Benchmark");
+            tags.put("Round", Integer.toString(game + 1));
+            writer.write(tags, Position.START_FEN, Arrays.copyOf(moves, plies));
+        }
+        archive = out.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long read() throws IOException {
+        long length = 0;
+        try (PgnReader reader = open()) {
+            for (PgnGame game = reader.next(); game != null; game = reader.next()) {
+                length += game.getMovetext().length();
+            }
+        }
+        return length;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public long validate() throws IOException {
+        try (PgnReader reader = open()) {
+            return new PgnValidator(threads).validate(reader).getPlies();
+        }
+    }
+
+    private PgnReader open() {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(archive)));
+    }
+}
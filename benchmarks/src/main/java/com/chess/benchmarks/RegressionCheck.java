@@ -0,0 +1,93 @@
+package com.chess.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result file against a recorded baseline and exits with a
+ * non-zero status when any benchmark regressed by more than the tolerance.
+ *
+ * Usage: RegressionCheck baseline.csv results.csv [tolerancePercent]
+ */
+public class RegressionCheck {
+    private static final class Result {
+        final String mode;
+        final double score;
+
+        Result(String mode, double score) {
+            this.mode = mode;
+            this.score = score;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RegressionCheck baseline.csv results.csv [tolerancePercent]");
+            System.exit(2);
+        }
+        Path baselinePath = Paths.get(args[0]);
+        if (!Files.exists(baselinePath)) {
+            System.err.println("No baseline at " + baselinePath + ", record one with jmhBaseline");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100.0 : 0.10;
+
+        Map<String, Result> baseline = read(baselinePath);
+        Map<String, Result> current = read(Paths.get(args[1]));
+        int regressions = 0;
+
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("NEW   " + entry.getKey());
+                continue;
+            }
+            Result after = entry.getValue();
+            // Throughput modes want higher scores, time modes want lower ones
+            double change = after.mode.equals("thrpt")
+                ? (before.score - after.score) / before.score
+                : (after.score - before.score) / before.score;
+            boolean regressed = change > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%s %-80s %12.3f -> %12.3f (%+.1f%%)%n",
+                regressed ? "SLOWER" : "ok    ", entry.getKey(), before.score, after.score, change * 100);
+        }
+
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than " + (tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+
+    // Keys are the benchmark name followed by its parameter values
+    private static Map<String, Result> read(Path path) throws IOException {
+        Map<String, Result> results = new HashMap<>();
+        List<String> lines = Files.readAllLines(path);
+        for (int i = 1; i < lines.size(); i++) {
+            String[] columns = splitCsv(lines.get(i));
+            if (columns.length < 7) continue;
+
+            StringBuilder key = new StringBuilder(columns[0]);
+            for (int c = 7; c < columns.length; c++) {
+                key.append(' ').append(columns[c]);
+            }
+            results.put(key.toString(), new Result(columns[1], Double.parseDouble(columns[4])));
+        }
+        return results;
+    }
+
+    private static String[] splitCsv(String line) {
+        String[] columns = line.split(",", -1);
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = columns[i].replace("\"", "").trim();
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,152 @@
+package com.chess.benchmarks;
+
+import com.chess.board.Attacks;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.pieces.Piece;
+import com.chess.pieces.PieceFactory;
+import com.chess.players.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time per slider move check: the movement strategies, which now use the
+// attack tables, against the square-by-square walk they used to do. Every
+// slider of the chosen kind is asked about all 64 destinations, and the
+// score is divided by that number of calls.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SliderAttacksBenchmark {
+    private static final int CALLS = 1024;
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    @Param({"Bishop", "Rook", "Queen"})
+    public String piece;
+
+    private Square[][] board;
+    private Piece moving;
+    private Square[] origins;
+    private Square[] targets;
+    private int[] originSquares;
+    private long occupied;
+
+    @Setup
+    public void setup() {
+        Position start = BenchmarkPositions.byName(position);
+        board = start.toSquares();
+        occupied = start.getOccupied();
+        List<Square> sliders = new ArrayList<>();
+        for (Square[] row : board) {
+            for (Square square : row) {
+                if (square.getPiece() != null && square.getPiece().getName().equals(piece)) {
+                    sliders.add(square);
+                }
+            }
+        }
+        // The endgame has no sliders: ask from the centre of the board
+        moving = sliders.isEmpty()
+            ? PieceFactory.getInstance().createPiece(piece.toLowerCase(), Player.WHITE)
+            : sliders.get(0).getPiece();
+        if (sliders.isEmpty()) {
+            sliders.add(board[3][3]);
+        }
+
+        // The same (origin, target) pairs for every benchmark, CALLS of them
+        origins = new Square[CALLS];
+        targets = new Square[CALLS];
+        originSquares = new int[CALLS];
+        for (int i = 0; i < CALLS; i++) {
+            Square from = sliders.get(i / 64 % sliders.size());
+            origins[i] = from;
+            targets[i] = board[i % 64 / 8][i % 8];
+            originSquares[i] = Position.squareOf(from.getRow(), from.getCol());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void strategy(Blackhole blackhole) {
+        for (int i = 0; i < CALLS; i++) {
+            blackhole.consume(moving.isValidMove(origins[i], targets[i], board));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void squareWalk(Blackhole blackhole) {
+        for (int i = 0; i < CALLS; i++) {
+            Square from = origins[i];
+            Square to = targets[i];
+            boolean valid;
+            switch (piece) {
+                case "Rook": valid = walkRook(from, to); break;
+                case "Bishop": valid = walkBishop(from, to); break;
+                default: valid = walkRook(from, to) || walkBishop(from, to);
+            }
+            blackhole.consume(valid);
+        }
+    }
+
+    // The attack set on the bitboard position, as the move generator uses it
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void tableLookup(Blackhole blackhole) {
+        for (int i = 0; i < CALLS; i++) {
+            int square = originSquares[i];
+            switch (piece) {
+                case "Rook": blackhole.consume(Attacks.rook(square, occupied)); break;
+                case "Bishop": blackhole.consume(Attacks.bishop(square, occupied)); break;
+                default: blackhole.consume(Attacks.queen(square, occupied));
+            }
+        }
+    }
+
+    // RookMovementStrategy before it used the attack tables
+    private boolean walkRook(Square from, Square to) {
+        if (from.getRow() != to.getRow() && from.getCol() != to.getCol()) {
+            return false;
+        }
+        int rowDir = Integer.compare(to.getRow(), from.getRow());
+        int colDir = Integer.compare(to.getCol(), from.getCol());
+        int currentRow = from.getRow() + rowDir;
+        int currentCol = from.getCol() + colDir;
+        while (currentRow != to.getRow() || currentCol != to.getCol()) {
+            if (board[currentRow][currentCol].getPiece() != null) {
+                return false;
+            }
+            currentRow += rowDir;
+            currentCol += colDir;
+        }
+        return true;
+    }
+
+    // BishopMovementStrategy before it used the attack tables
+    private boolean walkBishop(Square from, Square to) {
+        int rowDiff = Math.abs(to.getRow() - from.getRow());
+        int colDiff = Math.abs(to.getCol() - from.getCol());
+        if (rowDiff != colDiff) {
+            return false;
+        }
+        int rowDir = Integer.compare(to.getRow(), from.getRow());
+        int colDir = Integer.compare(to.getCol(), from.getCol());
+        int currentRow = from.getRow() + rowDir;
+        int currentCol = from.getCol() + colDir;
+        while (currentRow != to.getRow() && currentCol != to.getCol()) {
+            if (board[currentRow][currentCol].getPiece() != null) {
+                return false;
+            }
+            currentRow += rowDir;
+            currentCol += colDir;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,235 @@
+package com.chess.board;
+
+/**
+ * Precomputed attack sets for every piece type, indexed by square (a1 = 0).
+ * Rook and bishop attacks come from magic bitboard tables: the blockers on a
+ * slider's lines, multiplied by the square's magic number, give an index into
+ * a table of the attack sets for every arrangement of blockers, so a lookup
+ * costs one multiply and two loads whatever the board looks like.
+ */
+public final class Attacks {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    // Rays in the order N, E, NE, NW (increasing squares) then their opposites
+    // S, W, SW, SE, so that direction dir + 4 points back along dir
+    private static final int[] RAY_FILE_STEP = {0, 1, 1, -1, 0, -1, -1, 1};
+    private static final int[] RAY_RANK_STEP = {1, 0, 1, 1, -1, 0, -1, -1};
+    private static final long[][] RAYS = new long[8][64];
+
+    // Blocker masks leave out the edge squares, since a piece there cannot
+    // shorten the ray; each square's attacks start at its offset in the table
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    // Found once by trying sparse random numbers until no two blocker sets
+    // with different attacks collided; any such numbers would do
+    private static final long[] ROOK_MAGICS = {
+        0x2080008220944004L, 0x00C0400010002000L, 0x0100082001001044L, 0x2080080010000482L,
+        0x3080040108008002L, 0x4300082400010002L, 0x1080010002000080L, 0x010005830000204AL,
+        0x8004800020984001L, 0x0400804000200082L, 0x1400802000801000L, 0x0010808008001000L,
+        0xA001001005000800L, 0x0001000400020900L, 0x0299000100020004L, 0x0042000400A10042L,
+        0x0080004000200040L, 0x501000C020004000L, 0x0850008020008010L, 0x4008008008801004L,
+        0x0800808008000400L, 0x0010808002000401L, 0x20400C0062283510L, 0x0200020001008044L,
+        0x0800802080004000L, 0x1808200480400081L, 0x1060010100402012L, 0x2800300300190220L,
+        0x0810040080080081L, 0x021A000404001020L, 0x2050020080800100L, 0x0064104200013084L,
+        0x000281C010800820L, 0x0000882102004202L, 0x0000200080801000L, 0x0000080080801000L,
+        0x0400800400800800L, 0x100A008002800400L, 0xA800880244000110L, 0x0029240042000081L,
+        0x0A01004200820020L, 0x22C0010020810040L, 0x0020020400101000L, 0x640A002040120008L,
+        0x1040040008008080L, 0x1024020004008080L, 0x0804300201240088L, 0x8000010040820014L,
+        0x0480004000200240L, 0x0E00204604810200L, 0xA04840200B001100L, 0x0010048008001080L,
+        0x2008020004004040L, 0x4000020004008080L, 0x140150082102A400L, 0x1148008064010200L,
+        0x4142001040210082L, 0x0801884000106301L, 0x0020084010200101L, 0x0010010020040811L,
+        0x00120010A0088402L, 0x0219000400080201L, 0x08B0904100882214L, 0x8004002091040042L
+    };
+
+    private static final long[] BISHOP_MAGICS = {
+        0x0110206204002020L, 0x0010410800808006L, 0x0E04840082040000L, 0x0124042089011120L,
+        0x1001104100040020L, 0x4005052940000080L, 0x02040221100900A1L, 0x400024004404A002L,
+        0x2200400481840100L, 0x0C0010100911102DL, 0x05C0041C40820004L, 0x0000040400880001L,
+        0x0800040420400000L, 0xE202220190094004L, 0x0020044210300812L, 0x1000810442022124L,
+        0x8012404002020404L, 0x04A8281290110201L, 0x0811003001020810L, 0x440820510C010000L,
+        0x0981009190400000L, 0x0811000A01008222L, 0x0020A20602012000L, 0xC222C09201242108L,
+        0x220808404013A800L, 0x1242100008102085L, 0x0181010120820400L, 0x0462080044004008L,
+        0x8481001001004018L, 0xA008424002013000L, 0x04280280010C2100L, 0x0006044806044200L,
+        0x40B8029001082148L, 0x11830808003A3040L, 0x2144002400021400L, 0x0C80020080080082L,
+        0x0040010010010040L, 0x0124D00900068080L, 0x8108084050408200L, 0x18B8221029288080L,
+        0x21880819844A0800L, 0x10010108424020A1L, 0x0000208420811001L, 0x0000004208020481L,
+        0x2240080100400400L, 0x6401900102004042L, 0x8502106410882500L, 0xC804240400400023L,
+        0x0004060824240440L, 0x0084241208241480L, 0x4000002404120009L, 0x1601062084040040L,
+        0x4010001182020882L, 0x4410409001024110L, 0x00218801210C0800L, 0x4A20040434404000L,
+        0x0008410400824042L, 0x0040204044100900L, 0x00002044420A9080L, 0x0000050089084803L,
+        0x0410009188102400L, 0x0081000460340440L, 0x0810050802240404L, 0x1040020400420040L
+    };
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        for (int square = 0; square < 64; square++) {
+            int file = Position.fileOf(square);
+            int rank = Position.rankOf(square);
+
+            for (int[] step : knightSteps) {
+                KNIGHT[square] |= bit(file + step[0], rank + step[1]);
+            }
+            for (int df = -1; df <= 1; df++) {
+                for (int dr = -1; dr <= 1; dr++) {
+                    if (df != 0 || dr != 0) {
+                        KING[square] |= bit(file + df, rank + dr);
+                    }
+                }
+            }
+            PAWN[Position.WHITE][square] = bit(file - 1, rank + 1) | bit(file + 1, rank + 1);
+            PAWN[Position.BLACK][square] = bit(file - 1, rank - 1) | bit(file + 1, rank - 1);
+
+            for (int dir = 0; dir < 8; dir++) {
+                int f = file + RAY_FILE_STEP[dir];
+                int r = rank + RAY_RANK_STEP[dir];
+                while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                    RAYS[dir][square] |= 1L << Position.square(f, r);
+                    f += RAY_FILE_STEP[dir];
+                    r += RAY_RANK_STEP[dir];
+                }
+            }
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = RAYS[dir][from];
+                long opposite = RAYS[(dir + 4) & 7][from];
+                for (long targets = ray; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    BETWEEN[from][to] = ray & ~RAYS[dir][to] & ~(1L << to);
+                    LINE[from][to] = ray | opposite | (1L << from);
+                }
+            }
+        }
+
+        ROOK_TABLE = new long[initMagics(ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, true)];
+        BISHOP_TABLE = new long[initMagics(BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, false)];
+        fillMagics(ROOK_TABLE, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS, true);
+        fillMagics(BISHOP_TABLE, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS, false);
+    }
+
+    private Attacks() {}
+
+    private static long bit(int file, int rank) {
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return 0L;
+        }
+        return 1L << Position.square(file, rank);
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    // Squares a pawn of the given colour on this square attacks
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSETS[square]
+            + (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    public static long bishop(int square, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSETS[square]
+            + (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    // Squares strictly between two squares on a shared line, empty otherwise
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    // The full line through two aligned squares, empty if they are not aligned
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    // Sets the masks, shifts and offsets; returns the size of the table
+    private static int initMagics(long[] masks, long[] magics, int[] shifts, int[] offsets, boolean rook) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            int file = Position.fileOf(square);
+            int rank = Position.rankOf(square);
+            long edges = ((RANK_1 | RANK_8) & ~(RANK_1 << (8 * rank))) | ((FILE_A | FILE_H) & ~(FILE_A << file));
+            masks[square] = slidingAttacks(square, 0L, rook) & ~edges;
+            int bits = Long.bitCount(masks[square]);
+            shifts[square] = 64 - bits;
+            offsets[square] = size;
+            size += 1 << bits;
+        }
+        return size;
+    }
+
+    // Walks every subset of each mask and stores the attacks found along the rays
+    private static void fillMagics(long[] table, long[] masks, long[] magics, int[] shifts, int[] offsets,
+            boolean rook) {
+        for (int square = 0; square < 64; square++) {
+            long mask = masks[square];
+            long blockers = 0L;
+            do {
+                int index = offsets[square] + (int) ((blockers * magics[square]) >>> shifts[square]);
+                long attacks = slidingAttacks(square, blockers, rook);
+                if (table[index] != 0L && table[index] != attacks) {
+                    throw new IllegalStateException("Magic number for square " + square + " collides");
+                }
+                table[index] = attacks;
+                blockers = (blockers - mask) & mask;
+            } while (blockers != 0L);
+        }
+    }
+
+    private static long slidingAttacks(int square, long occupied, boolean rook) {
+        return rook
+            ? positiveRay(0, square, occupied) | positiveRay(1, square, occupied)
+                | negativeRay(4, square, occupied) | negativeRay(5, square, occupied)
+            : positiveRay(2, square, occupied) | positiveRay(3, square, occupied)
+                | negativeRay(6, square, occupied) | negativeRay(7, square, occupied);
+    }
+
+    private static long positiveRay(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long negativeRay(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return ray;
+    }
+}
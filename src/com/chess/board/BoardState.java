@@ -0,0 +1,95 @@
+package com.chess.board;
+
+import com.chess.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * What a Square[][] grid cannot show about a position: the castling rights
+ * and the en-passant square, in Position's encoding. GameRules updates both
+ * as it plays moves on the grid and pushes an undo record per move, so a
+ * tree walk over the grid can take moves back without allocating once the
+ * record arrays are long enough.
+ */
+public final class BoardState {
+    private static final int UNDO_CAPACITY = 64;
+
+    private int castlingRights;
+    private int enPassantSquare = Position.NO_SQUARE;
+    // Per move: the piece that moved, the piece it took and the state before it
+    private Piece[] movedPieces = new Piece[UNDO_CAPACITY];
+    private Piece[] capturedPieces = new Piece[UNDO_CAPACITY];
+    private int[] savedStates = new int[UNDO_CAPACITY];
+    private int undoCount;
+
+    public BoardState() {}
+
+    public BoardState(int castlingRights, int enPassantSquare) {
+        set(castlingRights, enPassantSquare);
+    }
+
+    public static BoardState of(Position position) {
+        return new BoardState(position.getCastlingRights(), position.getEnPassantSquare());
+    }
+
+    // Starts over from the given state, dropping the undo records
+    public void set(int castlingRights, int enPassantSquare) {
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        Arrays.fill(movedPieces, 0, undoCount, null);
+        Arrays.fill(capturedPieces, 0, undoCount, null);
+        undoCount = 0;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public boolean canCastle(int right) {
+        return (castlingRights & right) != 0;
+    }
+
+    // The square a pawn just skipped with a double push, or NO_SQUARE
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    // Records a move about to be played; the state itself changes in update
+    public void push(Piece moved, Piece captured) {
+        if (undoCount == savedStates.length) {
+            int capacity = undoCount * 2;
+            movedPieces = Arrays.copyOf(movedPieces, capacity);
+            capturedPieces = Arrays.copyOf(capturedPieces, capacity);
+            savedStates = Arrays.copyOf(savedStates, capacity);
+        }
+        movedPieces[undoCount] = moved;
+        capturedPieces[undoCount] = captured;
+        savedStates[undoCount] = castlingRights | (enPassantSquare + 1) << 4;
+        undoCount++;
+    }
+
+    public void update(int from, int to, boolean doublePawnPush) {
+        castlingRights &= Position.castlingMask(from) & Position.castlingMask(to);
+        enPassantSquare = doublePawnPush ? (from + to) >>> 1 : Position.NO_SQUARE;
+    }
+
+    public Piece getLastMoved() {
+        return movedPieces[undoCount - 1];
+    }
+
+    public Piece getLastCaptured() {
+        return capturedPieces[undoCount - 1];
+    }
+
+    // Restores the state from before the last recorded move
+    public void pop() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        int saved = savedStates[--undoCount];
+        movedPieces[undoCount] = null;
+        capturedPieces[undoCount] = null;
+        castlingRights = saved & 15;
+        enPassantSquare = (saved >>> 4) - 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.chess.board;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams FEN or EPD lines into a caller-supplied Position. The character
+ * buffer and line buffer are reused, so reading a file allocates nothing per
+ * position.
+ */
+public class FenReader implements Closeable {
+    private final Reader reader;
+    private final char[] buffer = new char[1 << 16];
+    private final StringBuilder line = new StringBuilder(128);
+    private int offset;
+    private int length;
+    private long lineNumber;
+
+    public FenReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public static FenReader open(Path path) throws IOException {
+        return new FenReader(Files.newBufferedReader(path, StandardCharsets.US_ASCII));
+    }
+
+    // Loads the next non-blank line into the position; returns false at the end of the input
+    public boolean next(Position position) throws IOException {
+        while (readLine()) {
+            int end = line.length();
+            while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) end--;
+            if (end == 0) {
+                continue;
+            }
+            try {
+                position.loadFen(line, 0, end);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        while (true) {
+            if (offset == length) {
+                length = reader.read(buffer, 0, buffer.length);
+                offset = 0;
+                if (length <= 0) {
+                    length = 0;
+                    if (line.length() == 0) {
+                        return false;
+                    }
+                    lineNumber++;
+                    return true;
+                }
+            }
+            int start = offset;
+            while (offset < length && buffer[offset] != '\n') offset++;
+            line.append(buffer, start, offset - start);
+            if (offset < length) {
+                offset++;
+                lineNumber++;
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
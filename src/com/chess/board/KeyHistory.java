@@ -0,0 +1,84 @@
+package com.chess.board;
+
+/**
+ * Keys of the positions played before the current one, for the repetition
+ * and fifty-move rules. Only positions since the last capture or pawn move
+ * can repeat, and that window is the halfmove clock, so the keys live in a
+ * ring just longer than the hundred plies after which the game is drawn
+ * anyway. A repetition check compares the current key with every other key
+ * in the window, those with the same side to move, and never looks at boards.
+ */
+public final class KeyHistory {
+    public static final int FIFTY_MOVE_PLIES = 100;
+
+    private static final int CAPACITY = 128;
+    private static final int MASK = CAPACITY - 1;
+
+    private final long[] keys = new long[CAPACITY];
+    // Keys pushed since the last clear; only the newest CAPACITY are kept
+    private int count;
+
+    public void clear() {
+        count = 0;
+    }
+
+    // Records the key of a position a move is about to be played from
+    public void push(long key) {
+        keys[count++ & MASK] = key;
+    }
+
+    // Forgets the newest key, when the move played from it is taken back
+    public void pop() {
+        if (count == 0) {
+            throw new IllegalStateException("No key to pop");
+        }
+        count--;
+    }
+
+    public void copyFrom(KeyHistory other) {
+        System.arraycopy(other.keys, 0, keys, 0, CAPACITY);
+        count = other.count;
+    }
+
+    // Number of keys that can be looked up
+    public int size() {
+        return Math.min(count, CAPACITY);
+    }
+
+    // Key of the position this many plies before the current one, 1 to size()
+    public long get(int pliesBack) {
+        if (pliesBack < 1 || pliesBack > size()) {
+            throw new IllegalArgumentException("No key " + pliesBack + " plies back");
+        }
+        return keys[(count - pliesBack) & MASK];
+    }
+
+    /**
+     * Earlier occurrences of the current position, given its key and halfmove
+     * clock. The position two plies back can never be the same, so the scan
+     * starts four plies back and stops at the last irreversible move.
+     */
+    public int repetitions(long key, int halfmoveClock) {
+        int limit = Math.min(halfmoveClock, size());
+        int seen = 0;
+        for (int back = 4; back <= limit; back += 2) {
+            if (keys[(count - back) & MASK] == key) {
+                seen++;
+            }
+        }
+        return seen;
+    }
+
+    // Whether the position has now stood on the board three times
+    public boolean isThreefold(long key, int halfmoveClock) {
+        return repetitions(key, halfmoveClock) >= 2;
+    }
+
+    public boolean isThreefold(Position position) {
+        return isThreefold(position.getKey(), position.getHalfmoveClock());
+    }
+
+    public static boolean isFiftyMoveDraw(Position position) {
+        return position.getHalfmoveClock() >= FIFTY_MOVE_PLIES;
+    }
+}
@@ -0,0 +1,81 @@
+package com.chess.board;
+
+/**
+ * Moves packed into the low 16 bits of an int: from square (6 bits), to square
+ * (6 bits) and a 4-bit flag field.
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private static final char[] PROMOTION_CHARS = {'n', 'b', 'r', 'q'};
+
+    private Move() {}
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    public static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (CAPTURE << 12)) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & (PROMOTION << 12)) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        int flags = flags(move);
+        return flags == KING_CASTLE || flags == QUEEN_CASTLE;
+    }
+
+    // Piece type (Position.KNIGHT..QUEEN) a promotion turns the pawn into
+    public static int promotionType(int move) {
+        return (flags(move) & 3) + Position.KNIGHT;
+    }
+
+    public static String squareName(int square) {
+        return "" + (char) ('a' + Position.fileOf(square)) + (char) ('1' + Position.rankOf(square));
+    }
+
+    public static int parseSquare(CharSequence text, int offset) {
+        int file = text.charAt(offset) - 'a';
+        int rank = text.charAt(offset + 1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            throw new IllegalArgumentException("Invalid square: " + text.subSequence(offset, offset + 2));
+        }
+        return Position.square(file, rank);
+    }
+
+    // Coordinate notation as used by UCI, e.g. e2e4 or e7e8q
+    public static String toString(int move) {
+        if (move == NONE) {
+            return "0000";
+        }
+        String text = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            text += PROMOTION_CHARS[flags(move) & 3];
+        }
+        return text;
+    }
+}
@@ -0,0 +1,220 @@
+package com.chess.board;
+
+import static com.chess.board.Position.*;
+
+/**
+ * Writes moves for the side to move into a caller-supplied buffer. Legal
+ * generation resolves checks and pins up front, so no move is played to test it.
+ */
+public final class MoveGenerator {
+    public static final int MAX_MOVES = 256;
+
+    private MoveGenerator() {}
+
+    public static int generateLegalMoves(Position position, int[] moves) {
+        return generate(position, moves, true, false);
+    }
+
+    // Captures and queen promotions only, as needed by a quiescence search
+    public static int generateLegalCaptures(Position position, int[] moves) {
+        return generate(position, moves, true, true);
+    }
+
+    public static int generatePseudoLegalMoves(Position position, int[] moves) {
+        return generate(position, moves, false, false);
+    }
+
+    public static boolean hasLegalMove(Position position, int[] buffer) {
+        return generate(position, buffer, true, false) > 0;
+    }
+
+    public static boolean isLegal(Position position, int move, int[] buffer) {
+        int count = generate(position, buffer, true, false);
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] == move) return true;
+        }
+        return false;
+    }
+
+    private static int generate(Position position, int[] moves, boolean legal, boolean capturesOnly) {
+        int us = position.getSideToMove();
+        int them = us ^ 1;
+        long own = position.getColorPieces(us);
+        long enemies = position.getColorPieces(them);
+        int kingSquare = position.getKingSquare(us);
+        int count = 0;
+
+        long checkMask = ~0L;
+        long pinned = 0L;
+        boolean inCheck = false;
+
+        if (kingSquare != NO_SQUARE) {
+            long kingTargets = Attacks.king(kingSquare) & (capturesOnly ? enemies : ~own);
+            if (legal) {
+                kingTargets &= ~position.getAttacks(them);
+            }
+            for (; kingTargets != 0; kingTargets &= kingTargets - 1) {
+                int to = Long.numberOfTrailingZeros(kingTargets);
+                moves[count++] = Move.encode(kingSquare, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+            }
+
+            if (legal) {
+                long checkers = position.getCheckers();
+                inCheck = checkers != 0;
+                if (Long.bitCount(checkers) > 1) {
+                    return count;
+                }
+                if (inCheck) {
+                    int checker = Long.numberOfTrailingZeros(checkers);
+                    checkMask = checkers | Attacks.between(kingSquare, checker);
+                }
+                pinned = position.getPinned();
+            }
+
+            if (!inCheck && !capturesOnly) {
+                count = generateCastling(position, us, kingSquare, moves, count, legal);
+            }
+        }
+
+        long targets = (capturesOnly ? enemies : ~own) & checkMask;
+        long queens = position.getPieces(us, QUEEN);
+        count = generatePieceMoves(position, KNIGHT, position.getPieces(us, KNIGHT), targets, enemies, pinned, kingSquare, moves, count);
+        count = generatePieceMoves(position, BISHOP, position.getPieces(us, BISHOP) | queens, targets, enemies, pinned, kingSquare, moves, count);
+        count = generatePieceMoves(position, ROOK, position.getPieces(us, ROOK) | queens, targets, enemies, pinned, kingSquare, moves, count);
+        count = generatePawnMoves(position, us, checkMask, pinned, kingSquare, legal, capturesOnly, moves, count);
+        return count;
+    }
+
+    // Queens are passed with both bishops and rooks, so each slider kind only
+    // contributes the rays of its own type.
+    private static int generatePieceMoves(Position position, int type, long movers, long targets, long enemies,
+                                          long pinned, int kingSquare, int[] moves, int count) {
+        long occupied = position.getOccupied();
+        for (; movers != 0; movers &= movers - 1) {
+            int from = Long.numberOfTrailingZeros(movers);
+            long attacks;
+            if (type == KNIGHT) {
+                attacks = Attacks.knight(from);
+            } else if (type == BISHOP) {
+                attacks = Attacks.bishop(from, occupied);
+            } else {
+                attacks = Attacks.rook(from, occupied);
+            }
+            attacks &= targets;
+            if ((pinned & (1L << from)) != 0) {
+                attacks &= Attacks.line(kingSquare, from);
+            }
+            for (; attacks != 0; attacks &= attacks - 1) {
+                int to = Long.numberOfTrailingZeros(attacks);
+                moves[count++] = Move.encode(from, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+            }
+        }
+        return count;
+    }
+
+    private static int generatePawnMoves(Position position, int us, long checkMask, long pinned, int kingSquare,
+                                         boolean legal, boolean capturesOnly, int[] moves, int count) {
+        long pawns = position.getPieces(us, PAWN);
+        long enemies = position.getColorPieces(us ^ 1);
+        long empty = ~position.getOccupied();
+        int forward = us == WHITE ? 8 : -8;
+        long doublePushRank = us == WHITE ? Attacks.RANK_2 : Attacks.RANK_7;
+        long promotionRank = us == WHITE ? Attacks.RANK_8 : Attacks.RANK_1;
+
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long fromBit = 1L << from;
+            long allowed = checkMask;
+            if ((pinned & fromBit) != 0) {
+                allowed &= Attacks.line(kingSquare, from);
+            }
+
+            int to = from + forward;
+            if (to >= 0 && to < 64 && (empty & (1L << to)) != 0) {
+                if ((allowed & (1L << to)) != 0) {
+                    if (!capturesOnly) {
+                        count = addPawnMove(from, to, false, promotionRank, moves, count);
+                    } else if ((promotionRank & (1L << to)) != 0) {
+                        moves[count++] = Move.encode(from, to, Move.PROMOTION | 3);
+                    }
+                }
+                int doubleTo = to + forward;
+                if (!capturesOnly && (doublePushRank & fromBit) != 0 && (empty & (1L << doubleTo)) != 0
+                    && (allowed & (1L << doubleTo)) != 0) {
+                    moves[count++] = Move.encode(from, doubleTo, Move.DOUBLE_PAWN_PUSH);
+                }
+            }
+
+            long captures = Attacks.pawn(us, from) & enemies & allowed;
+            for (; captures != 0; captures &= captures - 1) {
+                count = addPawnMove(from, Long.numberOfTrailingZeros(captures), true, promotionRank, moves, count);
+            }
+
+            int epSquare = position.getEnPassantSquare();
+            if (epSquare != NO_SQUARE && (Attacks.pawn(us, from) & (1L << epSquare)) != 0) {
+                int capturedSquare = epSquare ^ 8;
+                if (!legal || isLegalEnPassant(position, us, from, epSquare, capturedSquare, checkMask, kingSquare)) {
+                    moves[count++] = Move.encode(from, epSquare, Move.EN_PASSANT);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int addPawnMove(int from, int to, boolean capture, long promotionRank, int[] moves, int count) {
+        int base = capture ? Move.CAPTURE : Move.QUIET;
+        if ((promotionRank & (1L << to)) != 0) {
+            for (int promotion = 3; promotion >= 0; promotion--) {
+                moves[count++] = Move.encode(from, to, Move.PROMOTION | base | promotion);
+            }
+        } else {
+            moves[count++] = Move.encode(from, to, base);
+        }
+        return count;
+    }
+
+    // En passant removes two pieces from one rank, which can expose the king
+    // along that rank, so it is checked against the resulting occupancy.
+    private static boolean isLegalEnPassant(Position position, int us, int from, int to, int capturedSquare,
+                                            long checkMask, int kingSquare) {
+        if ((checkMask & ((1L << to) | (1L << capturedSquare))) == 0) {
+            return false;
+        }
+        if (kingSquare == NO_SQUARE) {
+            return true;
+        }
+        int them = us ^ 1;
+        long occupied = (position.getOccupied() ^ (1L << from) ^ (1L << capturedSquare)) | (1L << to);
+        long queens = position.getPieces(them, QUEEN);
+        long rooks = (position.getPieces(them, ROOK) | queens) & ~(1L << capturedSquare);
+        long bishops = (position.getPieces(them, BISHOP) | queens) & ~(1L << capturedSquare);
+        return (Attacks.rook(kingSquare, occupied) & rooks) == 0
+            && (Attacks.bishop(kingSquare, occupied) & bishops) == 0;
+    }
+
+    private static int generateCastling(Position position, int us, int kingSquare, int[] moves, int count,
+                                        boolean legal) {
+        int rights = position.getCastlingRights();
+        long occupied = position.getOccupied();
+        long attacked = legal ? position.getAttacks(us ^ 1) : 0L;
+        int home = us == WHITE ? 4 : 60;
+        int kingside = us == WHITE ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = us == WHITE ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        int rook = piece(us, ROOK);
+
+        if (kingSquare != home) {
+            return count;
+        }
+        if ((rights & kingside) != 0 && position.pieceAt(home + 3) == rook
+            && (occupied & Attacks.between(home, home + 3)) == 0
+            && (attacked & ((1L << (home + 1)) | (1L << (home + 2)))) == 0) {
+            moves[count++] = Move.encode(home, home + 2, Move.KING_CASTLE);
+        }
+        if ((rights & queenside) != 0 && position.pieceAt(home - 4) == rook
+            && (occupied & Attacks.between(home, home - 4)) == 0
+            && (attacked & ((1L << (home - 1)) | (1L << (home - 2)))) == 0) {
+            moves[count++] = Move.encode(home, home - 2, Move.QUEEN_CASTLE);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,94 @@
+package com.chess.board;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of packed moves (see Move) with an ordering score per move,
+ * meant to be kept one per ply of a search or tree walk. Both are plain int
+ * arrays sized for the most moves a position can have, so generating,
+ * scoring and ordering moves never allocates.
+ */
+public final class MoveList {
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scores = new int[MoveGenerator.MAX_MOVES];
+    private int size;
+
+    // Replaces the contents with the legal moves of the position
+    public int generateLegal(Position position) {
+        size = MoveGenerator.generateLegalMoves(position, moves);
+        return size;
+    }
+
+    // Replaces the contents with the legal captures and queen promotions
+    public int generateCaptures(Position position) {
+        size = MoveGenerator.generateLegalCaptures(position, moves);
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            throw new IllegalStateException("Move list is full");
+        }
+        scores[size] = 0;
+        moves[size++] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public int getScore(int index) {
+        return scores[index];
+    }
+
+    public void setScore(int index, int score) {
+        scores[index] = score;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Selection sort step: swaps the best scored move from index on into
+     * place and returns it. Calling it for 0, 1, 2... visits the moves in
+     * order of score while only sorting as far as a search gets before a
+     * cutoff.
+     */
+    public int pickBest(int index) {
+        int best = index;
+        for (int j = index + 1; j < size; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+}
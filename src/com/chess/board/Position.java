@@ -0,0 +1,816 @@
+package com.chess.board;
+
+import com.chess.pieces.*;
+import com.chess.players.Player;
+
+import java.util.Arrays;
+
+/**
+ * Compact board model backed by one bitboard per piece kind. Square indices run
+ * from a1 = 0 to h8 = 63; row 0 of a {@code Square[][]} grid is rank 8.
+ */
+public final class Position {
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int NO_PIECE = -1;
+    public static final int NO_SQUARE = -1;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String[] TYPE_NAMES = {"pawn", "knight", "bishop", "rook", "queen", "king"};
+    private static final String PIECE_CHARS = "PNBRQKpnbrqk";
+    private static final byte[] PIECE_INDEX = new byte[128];
+
+    // Rights kept when a piece moves from or to each square
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(PIECE_INDEX, (byte) NO_PIECE);
+        for (int piece = 0; piece < 12; piece++) {
+            PIECE_INDEX[PIECE_CHARS.charAt(piece)] = (byte) piece;
+        }
+
+        Arrays.fill(CASTLING_MASK, ALL_CASTLING);
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
+    // Flags for the lazily computed attack maps and check information
+    private static final int WHITE_ATTACKS_VALID = 1;
+    private static final int BLACK_ATTACKS_VALID = 2;
+    private static final int CHECK_INFO_VALID = 4;
+
+    private static final int UNDO_CAPACITY = 64;
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final byte[] mailbox = new byte[64];
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long key;
+    private final int[] kingSquares = new int[2];
+    // Material and piece-square sums from White's view, and the game phase,
+    // kept up to date by putPiece and removePiece (see PieceSquareTables)
+    private int midgameScore;
+    private int endgameScore;
+    private int phase;
+    // Computed on first use after a change and carried along by copyFrom
+    private final long[] attacks = new long[2];
+    private long checkers;
+    private long pinned;
+    private int cacheFlags;
+
+    // One record per move played since the last clear, load or copyFrom, so
+    // unmakeMove can restore what the move itself does not tell: the captured
+    // piece, castling rights and en-passant square packed into one int, the
+    // halfmove clock and the key. The arrays only grow when a line gets longer
+    // than any before it.
+    private int[] undoMoves = new int[UNDO_CAPACITY];
+    private int[] undoStates = new int[UNDO_CAPACITY];
+    private int[] undoClocks = new int[UNDO_CAPACITY];
+    private long[] undoKeys = new long[UNDO_CAPACITY];
+    private int undoCount;
+    // Target of loadFen until the FEN is known to be valid, created on first use
+    private Position fenScratch;
+
+    public Position() {
+        clear();
+    }
+
+    public static int piece(int color, int type) {
+        return color * 6 + type;
+    }
+
+    public static int colorOf(int piece) {
+        return piece < 6 ? WHITE : BLACK;
+    }
+
+    public static int typeOf(int piece) {
+        return piece < 6 ? piece : piece - 6;
+    }
+
+    public static int square(int file, int rank) {
+        return rank * 8 + file;
+    }
+
+    public static int fileOf(int square) {
+        return square & 7;
+    }
+
+    public static int rankOf(int square) {
+        return square >>> 3;
+    }
+
+    public static int squareOf(int row, int col) {
+        return (7 - row) * 8 + col;
+    }
+
+    public static int rowOf(int square) {
+        return 7 - (square >>> 3);
+    }
+
+    public static int colOf(int square) {
+        return square & 7;
+    }
+
+    public static int colorOf(Player player) {
+        return player == Player.WHITE ? WHITE : BLACK;
+    }
+
+    // Castling rights that survive a move from or to this square
+    public static int castlingMask(int square) {
+        return CASTLING_MASK[square];
+    }
+
+    public static Player playerOf(int color) {
+        return color == WHITE ? Player.WHITE : Player.BLACK;
+    }
+
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        colors[WHITE] = 0L;
+        colors[BLACK] = 0L;
+        occupied = 0L;
+        Arrays.fill(mailbox, (byte) NO_PIECE);
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = NO_SQUARE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        key = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+        kingSquares[WHITE] = NO_SQUARE;
+        kingSquares[BLACK] = NO_SQUARE;
+        cacheFlags = 0;
+        undoCount = 0;
+    }
+
+    public void copyFrom(Position other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, 12);
+        colors[WHITE] = other.colors[WHITE];
+        colors[BLACK] = other.colors[BLACK];
+        occupied = other.occupied;
+        System.arraycopy(other.mailbox, 0, mailbox, 0, 64);
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        key = other.key;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+        kingSquares[WHITE] = other.kingSquares[WHITE];
+        kingSquares[BLACK] = other.kingSquares[BLACK];
+        attacks[WHITE] = other.attacks[WHITE];
+        attacks[BLACK] = other.attacks[BLACK];
+        checkers = other.checkers;
+        pinned = other.pinned;
+        cacheFlags = other.cacheFlags;
+        undoCount = 0;
+    }
+
+    public void putPiece(int piece, int square) {
+        long bit = 1L << square;
+        pieces[piece] |= bit;
+        colors[colorOf(piece)] |= bit;
+        occupied |= bit;
+        mailbox[square] = (byte) piece;
+        key ^= Zobrist.piece(piece, square);
+        midgameScore += PieceSquareTables.midgame(piece, square);
+        endgameScore += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        if (typeOf(piece) == KING) {
+            kingSquares[colorOf(piece)] = Long.numberOfTrailingZeros(pieces[piece]);
+        }
+        cacheFlags = 0;
+    }
+
+    public void removePiece(int square) {
+        int piece = mailbox[square];
+        if (piece == NO_PIECE) return;
+
+        long bit = ~(1L << square);
+        pieces[piece] &= bit;
+        colors[colorOf(piece)] &= bit;
+        occupied &= bit;
+        mailbox[square] = (byte) NO_PIECE;
+        key ^= Zobrist.piece(piece, square);
+        midgameScore -= PieceSquareTables.midgame(piece, square);
+        endgameScore -= PieceSquareTables.endgame(piece, square);
+        phase -= PieceSquareTables.phase(piece);
+        if (typeOf(piece) == KING) {
+            kingSquares[colorOf(piece)] = pieces[piece] == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(pieces[piece]);
+        }
+        cacheFlags = 0;
+    }
+
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    public long getPieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long getPieces(int color, int type) {
+        return pieces[color * 6 + type];
+    }
+
+    public long getColorPieces(int color) {
+        return colors[color];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int color) {
+        if (color != sideToMove) {
+            key ^= Zobrist.side();
+            cacheFlags &= ~CHECK_INFO_VALID;
+        }
+        this.sideToMove = color;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int castlingRights) {
+        key ^= Zobrist.castling(this.castlingRights) ^ Zobrist.castling(castlingRights);
+        this.castlingRights = castlingRights;
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int square) {
+        key ^= Zobrist.enPassant(enPassantSquare) ^ Zobrist.enPassant(square);
+        this.enPassantSquare = square;
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    public long getKey() {
+        return key;
+    }
+
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    public int getEndgameScore() {
+        return endgameScore;
+    }
+
+    // Sum of PieceSquareTables.PHASE_WEIGHTS over the pieces; can exceed
+    // MAX_PHASE after promotions
+    public int getPhase() {
+        return phase;
+    }
+
+    public int getKingSquare(int color) {
+        return kingSquares[color];
+    }
+
+    // Squares attacked by this colour. Sliders see through the other side's
+    // king, so a king step is legal exactly when its target is not in the map.
+    public long getAttacks(int color) {
+        int flag = color == WHITE ? WHITE_ATTACKS_VALID : BLACK_ATTACKS_VALID;
+        if ((cacheFlags & flag) == 0) {
+            attacks[color] = computeAttacks(color);
+            cacheFlags |= flag;
+        }
+        return attacks[color];
+    }
+
+    // Enemy pieces giving check to the side to move
+    public long getCheckers() {
+        updateCheckInfo();
+        return checkers;
+    }
+
+    // Pieces of the side to move that are pinned to their own king
+    public long getPinned() {
+        updateCheckInfo();
+        return pinned;
+    }
+
+    private long computeAttacks(int color) {
+        int base = color * 6;
+        int enemyKing = kingSquares[color ^ 1];
+        long occupancy = enemyKing == NO_SQUARE ? occupied : occupied ^ (1L << enemyKing);
+
+        long pawns = pieces[base + PAWN];
+        long result = color == WHITE
+            ? ((pawns << 7) & ~Attacks.FILE_H) | ((pawns << 9) & ~Attacks.FILE_A)
+            : ((pawns >>> 9) & ~Attacks.FILE_H) | ((pawns >>> 7) & ~Attacks.FILE_A);
+        for (long knights = pieces[base + KNIGHT]; knights != 0; knights &= knights - 1) {
+            result |= Attacks.knight(Long.numberOfTrailingZeros(knights));
+        }
+        long queens = pieces[base + QUEEN];
+        for (long bishops = pieces[base + BISHOP] | queens; bishops != 0; bishops &= bishops - 1) {
+            result |= Attacks.bishop(Long.numberOfTrailingZeros(bishops), occupancy);
+        }
+        for (long rooks = pieces[base + ROOK] | queens; rooks != 0; rooks &= rooks - 1) {
+            result |= Attacks.rook(Long.numberOfTrailingZeros(rooks), occupancy);
+        }
+        if (kingSquares[color] != NO_SQUARE) {
+            result |= Attacks.king(kingSquares[color]);
+        }
+        return result;
+    }
+
+    private void updateCheckInfo() {
+        if ((cacheFlags & CHECK_INFO_VALID) != 0) {
+            return;
+        }
+        int us = sideToMove;
+        int them = us ^ 1;
+        int king = kingSquares[us];
+        checkers = 0L;
+        pinned = 0L;
+        if (king != NO_SQUARE) {
+            checkers = attackersTo(king, occupied) & colors[them];
+            long queens = pieces[piece(them, QUEEN)];
+            long snipers = (Attacks.rook(king, 0L) & (pieces[piece(them, ROOK)] | queens))
+                | (Attacks.bishop(king, 0L) & (pieces[piece(them, BISHOP)] | queens));
+            for (; snipers != 0; snipers &= snipers - 1) {
+                long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+                if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & colors[us]) != 0) {
+                    pinned |= blockers;
+                }
+            }
+        }
+        cacheFlags |= CHECK_INFO_VALID;
+    }
+
+    public long attackersTo(int square, long occupancy) {
+        return (Attacks.pawn(WHITE, square) & pieces[piece(BLACK, PAWN)])
+            | (Attacks.pawn(BLACK, square) & pieces[piece(WHITE, PAWN)])
+            | (Attacks.knight(square) & (pieces[piece(WHITE, KNIGHT)] | pieces[piece(BLACK, KNIGHT)]))
+            | (Attacks.king(square) & (pieces[piece(WHITE, KING)] | pieces[piece(BLACK, KING)]))
+            | (Attacks.bishop(square, occupancy) & (pieces[piece(WHITE, BISHOP)] | pieces[piece(BLACK, BISHOP)]
+                | pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)]))
+            | (Attacks.rook(square, occupancy) & (pieces[piece(WHITE, ROOK)] | pieces[piece(BLACK, ROOK)]
+                | pieces[piece(WHITE, QUEEN)] | pieces[piece(BLACK, QUEEN)]));
+    }
+
+    public boolean isSquareAttacked(int square, int byColor, long occupancy) {
+        int base = byColor * 6;
+        if ((Attacks.pawn(byColor ^ 1, square) & pieces[base + PAWN]) != 0) return true;
+        if ((Attacks.knight(square) & pieces[base + KNIGHT]) != 0) return true;
+        if ((Attacks.king(square) & pieces[base + KING]) != 0) return true;
+        long queens = pieces[base + QUEEN];
+        if ((Attacks.bishop(square, occupancy) & (pieces[base + BISHOP] | queens)) != 0) return true;
+        return (Attacks.rook(square, occupancy) & (pieces[base + ROOK] | queens)) != 0;
+    }
+
+    public boolean isSquareAttacked(int square, int byColor) {
+        return isSquareAttacked(square, byColor, occupied);
+    }
+
+    public boolean isInCheck(int color) {
+        if (color == sideToMove) {
+            return getCheckers() != 0;
+        }
+        int king = kingSquares[color];
+        return king != NO_SQUARE && isSquareAttacked(king, color ^ 1);
+    }
+
+    // Plays a move produced by MoveGenerator; unmakeMove takes it back. Callers
+    // that never go back, or keep a copy per ply, can ignore the undo record.
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int piece = mailbox[from];
+        int us = sideToMove;
+
+        int captured = flags == Move.EN_PASSANT ? mailbox[to ^ 8] : Move.isCapture(move) ? mailbox[to] : NO_PIECE;
+        pushUndo(move, captured);
+
+        halfmoveClock++;
+        key ^= Zobrist.enPassant(enPassantSquare);
+        enPassantSquare = NO_SQUARE;
+
+        if (flags == Move.EN_PASSANT) {
+            removePiece(to ^ 8);
+        } else if (Move.isCapture(move)) {
+            removePiece(to);
+        }
+        removePiece(from);
+        putPiece(Move.isPromotion(move) ? piece(us, Move.promotionType(move)) : piece, to);
+
+        if (flags == Move.KING_CASTLE) {
+            int rook = mailbox[to + 1];
+            removePiece(to + 1);
+            putPiece(rook, to - 1);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            int rook = mailbox[to - 2];
+            removePiece(to - 2);
+            putPiece(rook, to + 1);
+        } else if (flags == Move.DOUBLE_PAWN_PUSH) {
+            int skipped = (from + to) >>> 1;
+            if (isEnPassantCapturable(skipped, us ^ 1)) {
+                enPassantSquare = skipped;
+                key ^= Zobrist.enPassant(skipped);
+            }
+        }
+
+        if (typeOf(piece) == PAWN || Move.isCapture(move)) {
+            halfmoveClock = 0;
+        }
+        int rights = castlingRights & CASTLING_MASK[from] & CASTLING_MASK[to];
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+        if (us == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = us ^ 1;
+        key ^= Zobrist.side();
+        cacheFlags = 0;
+    }
+
+    // Takes back the last move played with makeMove, restoring the position
+    // exactly, key included
+    public void unmakeMove() {
+        if (undoCount == 0) {
+            throw new IllegalStateException("No move to take back");
+        }
+        int index = --undoCount;
+        int move = undoMoves[index];
+        int state = undoStates[index];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        int us = sideToMove ^ 1;
+
+        int piece = Move.isPromotion(move) ? piece(us, PAWN) : mailbox[to];
+        removePiece(to);
+        putPiece(piece, from);
+        if (flags == Move.KING_CASTLE) {
+            int rook = mailbox[to - 1];
+            removePiece(to - 1);
+            putPiece(rook, to + 1);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            int rook = mailbox[to + 1];
+            removePiece(to + 1);
+            putPiece(rook, to - 2);
+        }
+        int captured = (state & 15) - 1;
+        if (captured != NO_PIECE) {
+            putPiece(captured, flags == Move.EN_PASSANT ? to ^ 8 : to);
+        }
+
+        castlingRights = (state >>> 4) & 15;
+        enPassantSquare = (state >>> 8) - 1;
+        halfmoveClock = undoClocks[index];
+        key = undoKeys[index];
+        if (us == BLACK) {
+            fullmoveNumber--;
+        }
+        sideToMove = us;
+        cacheFlags = 0;
+    }
+
+    // Number of moves unmakeMove can take back
+    public int getUndoCount() {
+        return undoCount;
+    }
+
+    private void pushUndo(int move, int captured) {
+        if (undoCount == undoMoves.length) {
+            int capacity = undoCount * 2;
+            undoMoves = Arrays.copyOf(undoMoves, capacity);
+            undoStates = Arrays.copyOf(undoStates, capacity);
+            undoClocks = Arrays.copyOf(undoClocks, capacity);
+            undoKeys = Arrays.copyOf(undoKeys, capacity);
+        }
+        undoMoves[undoCount] = move;
+        undoStates[undoCount] = (captured + 1) | castlingRights << 4 | (enPassantSquare + 1) << 8;
+        undoClocks[undoCount] = halfmoveClock;
+        undoKeys[undoCount] = key;
+        undoCount++;
+    }
+
+    // The en-passant square is only recorded when a pawn can actually capture
+    // there, so positions that differ by a dead en-passant square share a key.
+    private boolean isEnPassantCapturable(int square, int capturingColor) {
+        return (Attacks.pawn(capturingColor ^ 1, square) & pieces[piece(capturingColor, PAWN)]) != 0;
+    }
+
+    public static Position fromFen(String fen) {
+        Position position = new Position();
+        position.loadFen(fen);
+        return position;
+    }
+
+    public void loadFen(String fen) {
+        loadFen(fen, 0, fen.length());
+    }
+
+    // Parses fen[start, end) without allocating, so a file of FEN lines can be
+    // streamed through one Position. Anything after the move counters, or EPD
+    // operations in their place, is ignored. The FEN is parsed into a scratch
+    // position first, so when it is rejected this position is left as it was.
+    public void loadFen(CharSequence fen, int start, int end) {
+        if (fenScratch == null) {
+            fenScratch = new Position();
+        }
+        fenScratch.parseFen(fen, start, end);
+        copyFrom(fenScratch);
+    }
+
+    private void parseFen(CharSequence fen, int start, int end) {
+        clear();
+        int i = skipSpaces(fen, start, end);
+        int rank = 7;
+        int file = 0;
+        for (; i < end && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                rank--;
+                if (file != 8 || rank < 0) throw invalidFen(fen, start, end);
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) throw invalidFen(fen, start, end);
+            } else {
+                int piece = c < 128 ? PIECE_INDEX[c] : NO_PIECE;
+                if (piece == NO_PIECE || file > 7) throw invalidFen(fen, start, end);
+                putPiece(piece, square(file, rank));
+                file++;
+            }
+        }
+        if (rank != 0 || file != 8) throw invalidFen(fen, start, end);
+
+        i = skipSpaces(fen, i, end);
+        if (i >= end) throw invalidFen(fen, start, end);
+        char side = fen.charAt(i++);
+        if (side != 'w' && side != 'b') throw invalidFen(fen, start, end);
+        sideToMove = side == 'b' ? BLACK : WHITE;
+
+        for (i = skipSpaces(fen, i, end); i < end && fen.charAt(i) != ' '; i++) {
+            switch (fen.charAt(i)) {
+                case 'K': castlingRights |= WHITE_KINGSIDE; break;
+                case 'Q': castlingRights |= WHITE_QUEENSIDE; break;
+                case 'k': castlingRights |= BLACK_KINGSIDE; break;
+                case 'q': castlingRights |= BLACK_QUEENSIDE; break;
+                default: break;
+            }
+        }
+        // Rights whose king or rook has left its home square are dropped
+        castlingRights &= inferCastlingRights();
+
+        i = skipSpaces(fen, i, end);
+        if (i < end && fen.charAt(i) != '-') {
+            if (i + 1 >= end) throw invalidFen(fen, start, end);
+            int square = Move.parseSquare(fen, i);
+            if (!isDoublePushTarget(square)) throw invalidFen(fen, start, end);
+            if (isEnPassantCapturable(square, sideToMove)) {
+                enPassantSquare = square;
+            }
+            i += 2;
+        } else {
+            i++;
+        }
+
+        i = skipSpaces(fen, i, end);
+        if (i < end && isDigit(fen.charAt(i))) {
+            int value = 0;
+            for (; i < end && isDigit(fen.charAt(i)); i++) value = value * 10 + fen.charAt(i) - '0';
+            halfmoveClock = value;
+            i = skipSpaces(fen, i, end);
+            if (i < end && isDigit(fen.charAt(i))) {
+                value = 0;
+                for (; i < end && isDigit(fen.charAt(i)); i++) value = value * 10 + fen.charAt(i) - '0';
+                fullmoveNumber = value;
+            }
+        }
+
+        // putPiece has already hashed the pieces
+        key ^= Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        if (sideToMove == BLACK) {
+            key ^= Zobrist.side();
+        }
+        if (!isLegalSetup()) throw invalidFen(fen, start, end);
+    }
+
+    // One king per side, no pawn on the first or last rank, and the side
+    // that just moved not left in check (which also rules out touching kings)
+    private boolean isLegalSetup() {
+        return Long.bitCount(pieces[piece(WHITE, KING)]) == 1
+            && Long.bitCount(pieces[piece(BLACK, KING)]) == 1
+            && ((pieces[piece(WHITE, PAWN)] | pieces[piece(BLACK, PAWN)]) & (Attacks.RANK_1 | Attacks.RANK_8)) == 0
+            && !isInCheck(sideToMove ^ 1);
+    }
+
+    // Whether the side that just moved can have passed over the square with a
+    // double pawn push: it is on that side's third rank, it and the square the
+    // pawn came from are empty, and the pawn stands just beyond it
+    private boolean isDoublePushTarget(int square) {
+        int forward = sideToMove == WHITE ? -8 : 8;
+        return rankOf(square) == (sideToMove == WHITE ? 5 : 2)
+            && mailbox[square] == NO_PIECE
+            && mailbox[square - forward] == NO_PIECE
+            && mailbox[square + forward] == piece(sideToMove ^ 1, PAWN);
+    }
+
+    private static int skipSpaces(CharSequence text, int i, int end) {
+        while (i < end && Character.isWhitespace(text.charAt(i))) i++;
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static IllegalArgumentException invalidFen(CharSequence fen, int start, int end) {
+        return new IllegalArgumentException("Invalid FEN: " + fen.subSequence(start, end));
+    }
+
+    public String toFen() {
+        return appendFen(new StringBuilder(90)).toString();
+    }
+
+    // Appends the FEN to an existing builder, so writers can reuse one buffer
+    public StringBuilder appendFen(StringBuilder fen) {
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = mailbox[square(file, rank)];
+                if (piece == NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                fen.append(PIECE_CHARS.charAt(piece));
+            }
+            if (empty > 0) fen.append((char) ('0' + empty));
+            if (rank > 0) fen.append('/');
+        }
+
+        fen.append(sideToMove == WHITE ? " w " : " b ");
+        if (castlingRights == 0) fen.append('-');
+        if ((castlingRights & WHITE_KINGSIDE) != 0) fen.append('K');
+        if ((castlingRights & WHITE_QUEENSIDE) != 0) fen.append('Q');
+        if ((castlingRights & BLACK_KINGSIDE) != 0) fen.append('k');
+        if ((castlingRights & BLACK_QUEENSIDE) != 0) fen.append('q');
+        fen.append(' ');
+        if (enPassantSquare == NO_SQUARE) {
+            fen.append('-');
+        } else {
+            fen.append((char) ('a' + fileOf(enPassantSquare))).append((char) ('1' + rankOf(enPassantSquare)));
+        }
+        fen.append(' ').append(halfmoveClock).append(' ').append(fullmoveNumber);
+        return fen;
+    }
+
+    public static Position fromSquares(Square[][] squares, Player sideToMove) {
+        Position position = new Position();
+        position.loadSquares(squares, sideToMove);
+        return position;
+    }
+
+    // A Square[][] grid carries no move history, so castling rights are inferred
+    // from kings and rooks still standing on their home squares.
+    public void loadSquares(Square[][] squares, Player sideToMove) {
+        clear();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Piece piece = squares[row][col].getPiece();
+                if (piece != null) {
+                    putPiece(pieceOf(piece), squareOf(row, col));
+                }
+            }
+        }
+        this.sideToMove = colorOf(sideToMove);
+        this.castlingRights = inferCastlingRights();
+        // putPiece has already hashed the pieces
+        key ^= Zobrist.castling(castlingRights);
+        if (this.sideToMove == BLACK) {
+            key ^= Zobrist.side();
+        }
+    }
+
+    // Writes the placement into an existing grid, keeping Piece objects that
+    // already match so unchanged squares are not recreated.
+    public void copyTo(Square[][] squares) {
+        PieceFactory factory = PieceFactory.getInstance();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                Square square = squares[row][col];
+                int piece = mailbox[squareOf(row, col)];
+                if (piece == NO_PIECE) {
+                    square.setPiece(null);
+                } else if (square.getPiece() == null || pieceOf(square.getPiece()) != piece) {
+                    square.setPiece(factory.createPiece(TYPE_NAMES[typeOf(piece)], playerOf(colorOf(piece))));
+                }
+            }
+        }
+    }
+
+    public Square[][] toSquares() {
+        Square[][] squares = new Square[8][8];
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                squares[row][col] = new Square(row, col, (row + col) % 2 == 0);
+            }
+        }
+        copyTo(squares);
+        return squares;
+    }
+
+    public static int pieceOf(Piece piece) {
+        int color = colorOf(piece.getPlayer());
+        if (piece instanceof Pawn) return piece(color, PAWN);
+        if (piece instanceof Knight) return piece(color, KNIGHT);
+        if (piece instanceof Bishop) return piece(color, BISHOP);
+        if (piece instanceof Rook) return piece(color, ROOK);
+        if (piece instanceof Queen) return piece(color, QUEEN);
+        if (piece instanceof King) return piece(color, KING);
+        throw new IllegalArgumentException("Unknown piece type: " + piece.getName());
+    }
+
+    private int inferCastlingRights() {
+        int rights = 0;
+        if (mailbox[4] == piece(WHITE, KING)) {
+            if (mailbox[7] == piece(WHITE, ROOK)) rights |= WHITE_KINGSIDE;
+            if (mailbox[0] == piece(WHITE, ROOK)) rights |= WHITE_QUEENSIDE;
+        }
+        if (mailbox[60] == piece(BLACK, KING)) {
+            if (mailbox[63] == piece(BLACK, ROOK)) rights |= BLACK_KINGSIDE;
+            if (mailbox[56] == piece(BLACK, ROOK)) rights |= BLACK_QUEENSIDE;
+        }
+        return rights;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Position)) return false;
+        Position other = (Position) o;
+        return Arrays.equals(pieces, other.pieces)
+            && sideToMove == other.sideToMove
+            && castlingRights == other.castlingRights
+            && enPassantSquare == other.enPassantSquare
+            && halfmoveClock == other.halfmoveClock
+            && fullmoveNumber == other.fullmoveNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(pieces);
+        result = 31 * result + sideToMove;
+        result = 31 * result + castlingRights;
+        return 31 * result + enPassantSquare;
+    }
+}
@@ -0,0 +1,83 @@
+package com.chess.board;
+
+/**
+ * 64-bit Zobrist keys. The tables come from a fixed seed so keys are stable
+ * across runs and can be stored on disk.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+    private static final long SIDE;
+
+    static {
+        long seed = 0x3243F6A8885A308DL;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int square = 0; square < 64; square++) {
+                seed += 0x9E3779B97F4A7C15L;
+                PIECE_SQUARE[piece][square] = mix(seed);
+            }
+        }
+        // Each castling right gets its own key and combinations XOR together
+        long[] rights = new long[4];
+        for (int i = 0; i < 4; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            rights[i] = mix(seed);
+        }
+        for (int mask = 0; mask < 16; mask++) {
+            for (int i = 0; i < 4; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    CASTLING[mask] ^= rights[i];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            seed += 0x9E3779B97F4A7C15L;
+            EN_PASSANT_FILE[file] = mix(seed);
+        }
+        seed += 0x9E3779B97F4A7C15L;
+        SIDE = mix(seed);
+    }
+
+    private Zobrist() {}
+
+    // SplitMix64 finaliser
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static long piece(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    public static long enPassant(int square) {
+        return square == Position.NO_SQUARE ? 0L : EN_PASSANT_FILE[Position.fileOf(square)];
+    }
+
+    public static long side() {
+        return SIDE;
+    }
+
+    // Full recomputation, used when a position is loaded and to verify the incremental key
+    public static long hash(Position position) {
+        long key = 0L;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != Position.NO_PIECE) {
+                key ^= PIECE_SQUARE[piece][square];
+            }
+        }
+        key ^= CASTLING[position.getCastlingRights()];
+        key ^= enPassant(position.getEnPassantSquare());
+        if (position.getSideToMove() == Position.BLACK) {
+            key ^= SIDE;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,29 @@
+package com.chess.book;
+
+/**
+ * One book move for a position: the move in the encoding of
+ * {@link com.chess.board.Move}, its weight and the learn field.
+ */
+public class BookEntry {
+    private final int move;
+    private final int weight;
+    private final int learn;
+
+    public BookEntry(int move, int weight, int learn) {
+        this.move = move;
+        this.weight = weight;
+        this.learn = learn;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getLearn() {
+        return learn;
+    }
+}
@@ -0,0 +1,175 @@
+package com.chess.book;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+/**
+ * An opening book in the Polyglot .bin format: 16-byte big-endian entries of
+ * key, move, weight and learn value, sorted by key as an unsigned number. The
+ * file is memory-mapped and searched in place, so a lookup costs a binary
+ * search and one move generation.
+ *
+ * Keys are computed by the given function: {@link PolyglotKey} for books
+ * from other programs, or {@link Position#getKey()} for books written by
+ * {@link OpeningBookWriter} with the default keys.
+ */
+public class OpeningBook implements Closeable {
+    static final int ENTRY_SIZE = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer entries;
+    private final int entryCount;
+    private final ToLongFunction<Position> keys;
+
+    private OpeningBook(FileChannel channel, ToLongFunction<Position> keys) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Book larger than 2 GB");
+        }
+        this.channel = channel;
+        this.entries = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        this.entryCount = (int) (size / ENTRY_SIZE);
+        this.keys = keys;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        return open(path, Position::getKey);
+    }
+
+    public static OpeningBook open(Path path, ToLongFunction<Position> keys) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new OpeningBook(channel, keys);
+        } catch (IOException | IllegalArgumentException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    // The legal book moves for the position in book order; empty when it is out of book
+    public List<BookEntry> lookup(Position position) {
+        long key = keys.applyAsLong(position);
+        List<BookEntry> moves = new ArrayList<>();
+        int entry = lowerBound(key);
+        if (entry == entryCount || keyAt(entry) != key) {
+            return moves;
+        }
+
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, legal);
+        for (; entry < entryCount && keyAt(entry) == key; entry++) {
+            int offset = entry * ENTRY_SIZE;
+            int move = toMove(entries.getShort(offset + 8) & 0xFFFF, legal, count);
+            if (move != Move.NONE) {
+                moves.add(new BookEntry(move, entries.getShort(offset + 10) & 0xFFFF, entries.getInt(offset + 12)));
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Picks a book move with probability proportional to its weight, or
+     * returns Move.NONE when the position is not in the book or every move
+     * has weight zero.
+     */
+    public int pickMove(Position position, Random random) {
+        List<BookEntry> moves = lookup(position);
+        int total = 0;
+        for (BookEntry entry : moves) {
+            total += entry.getWeight();
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        int pick = random.nextInt(total);
+        for (BookEntry entry : moves) {
+            pick -= entry.getWeight();
+            if (pick < 0) {
+                return entry.getMove();
+            }
+        }
+        return Move.NONE;
+    }
+
+    // The most heavily weighted book move, or Move.NONE
+    public int bestMove(Position position) {
+        int best = Move.NONE;
+        int bestWeight = 0;
+        for (BookEntry entry : lookup(position)) {
+            if (entry.getWeight() > bestWeight) {
+                best = entry.getMove();
+                bestWeight = entry.getWeight();
+            }
+        }
+        return best;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int entry) {
+        return entries.getLong(entry * ENTRY_SIZE);
+    }
+
+    /**
+     * Polyglot moves: to file and rank in bits 0-5, from file and rank in bits
+     * 6-11, promotion piece (1 knight .. 4 queen) in bits 12-14. Castling is
+     * written as the king taking its own rook.
+     */
+    private static int toMove(int polyglotMove, int[] legal, int count) {
+        int to = polyglotMove & 0x3F;
+        int from = (polyglotMove >>> 6) & 0x3F;
+        int promotion = (polyglotMove >>> 12) & 7;
+        for (int i = 0; i < count; i++) {
+            if (toPolyglot(legal[i]) == (from << 6 | to | promotion << 12)) {
+                return legal[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    static int toPolyglot(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int flags = Move.flags(move);
+        if (flags == Move.KING_CASTLE) {
+            to = from + 3;
+        } else if (flags == Move.QUEEN_CASTLE) {
+            to = from - 4;
+        }
+        int promotion = Move.isPromotion(move) ? Move.promotionType(move) - Position.KNIGHT + 1 : 0;
+        return to | from << 6 | promotion << 12;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.chess.book;
+
+import com.chess.board.Position;
+import com.chess.db.GameDatabase;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects the moves of finished games and writes them as a Polyglot book.
+ * Following Polyglot, a move scores two points for every win and one for
+ * every draw of the side that played it; scores are scaled down per position
+ * when they would not fit the 16-bit weight.
+ */
+public class OpeningBookWriter {
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    private final ToLongFunction<Position> keys;
+    private final int maxPlies;
+    // Position key to Polyglot move to score
+    private final Map<Long, Map<Integer, Long>> scores = new HashMap<>();
+    private final Position position = new Position();
+
+    public OpeningBookWriter(int maxPlies) {
+        this(maxPlies, Position::getKey);
+    }
+
+    public OpeningBookWriter(int maxPlies, ToLongFunction<Position> keys) {
+        this.maxPlies = maxPlies;
+        this.keys = keys;
+    }
+
+    // The result is a GameDatabase code; games without a result add nothing
+    public void add(String startFen, int[] moves, int result) {
+        int whitePoints = result == GameDatabase.WHITE_WIN ? 2 : result == GameDatabase.DRAW ? 1 : 0;
+        int blackPoints = result == GameDatabase.BLACK_WIN ? 2 : result == GameDatabase.DRAW ? 1 : 0;
+        position.loadFen(startFen);
+        for (int ply = 0; ply < Math.min(moves.length, maxPlies); ply++) {
+            int points = position.getSideToMove() == Position.WHITE ? whitePoints : blackPoints;
+            if (points > 0) {
+                scores.computeIfAbsent(keys.applyAsLong(position), key -> new HashMap<>())
+                    .merge(OpeningBook.toPolyglot(moves[ply]), (long) points, Long::sum);
+            }
+            position.makeMove(moves[ply]);
+        }
+    }
+
+    public int getPositionCount() {
+        return scores.size();
+    }
+
+    public void write(Path path) throws IOException {
+        List<Long> sortedKeys = new ArrayList<>(scores.keySet());
+        sortedKeys.sort(Long::compareUnsigned);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (long key : sortedKeys) {
+                List<Map.Entry<Integer, Long>> moves = new ArrayList<>(scores.get(key).entrySet());
+                moves.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+                long best = moves.get(0).getValue();
+                for (Map.Entry<Integer, Long> move : moves) {
+                    long weight = best > MAX_WEIGHT ? move.getValue() * MAX_WEIGHT / best : move.getValue();
+                    out.writeLong(key);
+                    out.writeShort(move.getKey());
+                    out.writeShort((int) Math.max(weight, 1));
+                    out.writeInt(0);
+                }
+            }
+        }
+    }
+}
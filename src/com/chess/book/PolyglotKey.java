@@ -0,0 +1,88 @@
+package com.chess.book;
+
+import com.chess.board.Attacks;
+import com.chess.board.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.ToLongFunction;
+
+/**
+ * Position keys as Polyglot computes them, needed to read books made by other
+ * programs. The 781 random numbers of the Polyglot specification are not
+ * bundled; they are loaded from a text file holding them in order (piece
+ * squares, castling, en-passant files, side to move), as hex numbers
+ * separated by whitespace or commas.
+ */
+public class PolyglotKey implements ToLongFunction<Position> {
+    public static final int RANDOM_COUNT = 781;
+
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+
+    private final long[] random;
+
+    public PolyglotKey(long[] random) {
+        if (random.length != RANDOM_COUNT) {
+            throw new IllegalArgumentException("Expected " + RANDOM_COUNT + " random numbers, got " + random.length);
+        }
+        this.random = random.clone();
+    }
+
+    public static PolyglotKey load(Path path) throws IOException {
+        long[] random = new long[RANDOM_COUNT];
+        int count = 0;
+        for (String token : Files.readString(path).split("[\\s,{}]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            if (count == RANDOM_COUNT) {
+                throw new IllegalArgumentException("More than " + RANDOM_COUNT + " numbers in " + path);
+            }
+            String hex = token.startsWith("0x") || token.startsWith("0X") ? token.substring(2) : token;
+            if (hex.endsWith("ULL") || hex.endsWith("ull")) {
+                hex = hex.substring(0, hex.length() - 3);
+            }
+            random[count++] = Long.parseUnsignedLong(hex, 16);
+        }
+        if (count != RANDOM_COUNT) {
+            throw new IllegalArgumentException("Expected " + RANDOM_COUNT + " numbers in " + path + ", got " + count);
+        }
+        return new PolyglotKey(random);
+    }
+
+    @Override
+    public long applyAsLong(Position position) {
+        long key = 0;
+        for (int square = 0; square < 64; square++) {
+            int piece = position.pieceAt(square);
+            if (piece != Position.NO_PIECE) {
+                // Polyglot orders kinds black pawn, white pawn, black knight, ...
+                int kind = 2 * Position.typeOf(piece) + (Position.colorOf(piece) == Position.WHITE ? 1 : 0);
+                key ^= random[64 * kind + square];
+            }
+        }
+
+        int castling = position.getCastlingRights();
+        for (int right = 0; right < 4; right++) {
+            if ((castling & (1 << right)) != 0) {
+                key ^= random[CASTLING_OFFSET + right];
+            }
+        }
+
+        // Only hashed when a pawn of the side to move stands ready to capture
+        int us = position.getSideToMove();
+        int enPassant = position.getEnPassantSquare();
+        if (enPassant != Position.NO_SQUARE
+                && (Attacks.pawn(us ^ 1, enPassant) & position.getPieces(us, Position.PAWN)) != 0) {
+            key ^= random[EN_PASSANT_OFFSET + Position.fileOf(enPassant)];
+        }
+
+        if (us == Position.WHITE) {
+            key ^= random[TURN_OFFSET];
+        }
+        return key;
+    }
+}
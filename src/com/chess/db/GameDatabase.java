@@ -0,0 +1,209 @@
+package com.chess.db;
+
+import com.chess.board.Position;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read side of the binary game database, memory-mapped so queries touch only
+ * the pages they need. Files are written by {@link GameDatabaseWriter}.
+ *
+ * Layout, all values big-endian and aligned to their size:
+ * <pre>
+ * header   magic, version, game count, 0, then the offsets of the games,
+ *          the game offset table and the index, and the index entry count
+ * games    per game: ply count (short), result (byte), flags (byte),
+ *          [FEN length (short) and FEN bytes if flags &amp; 1], padding to
+ *          an even offset, one 16-bit move code per ply
+ * offsets  one long per game: the offset of its record
+ * index    16-byte entries sorted by key: the Zobrist key of a position,
+ *          then game (32 bits), ply (14), result (2) and the move played
+ *          from the position (16, 0 where the game ended)
+ * </pre>
+ */
+public class GameDatabase implements Closeable {
+    public static final int WHITE_WIN = 0;
+    public static final int BLACK_WIN = 1;
+    public static final int DRAW = 2;
+    public static final int UNKNOWN = 3;
+
+    static final int MAGIC = 0x43474442;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int ENTRY_SIZE = 16;
+    static final int FLAG_START_FEN = 1;
+
+    private final MappedFile file;
+    private final int gameCount;
+    private final long offsetsOffset;
+    private final long indexOffset;
+    private final long indexEntries;
+
+    private GameDatabase(MappedFile file) {
+        this.file = file;
+        if (file.size() < HEADER_SIZE || file.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a game database");
+        }
+        if (file.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported game database version " + file.getInt(4));
+        }
+        gameCount = file.getInt(8);
+        offsetsOffset = file.getLong(24);
+        indexOffset = file.getLong(32);
+        indexEntries = file.getLong(40);
+    }
+
+    public static GameDatabase open(Path path) throws IOException {
+        MappedFile file = new MappedFile(path);
+        try {
+            return new GameDatabase(file);
+        } catch (IllegalArgumentException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public long getIndexEntries() {
+        return indexEntries;
+    }
+
+    public int getResult(int game) {
+        return file.getByte(recordOffset(game) + 2);
+    }
+
+    public String getStartFen(int game) {
+        long offset = recordOffset(game);
+        if ((file.getByte(offset + 3) & FLAG_START_FEN) == 0) {
+            return Position.START_FEN;
+        }
+        int length = file.getShort(offset + 4) & 0xFFFF;
+        byte[] fen = new byte[length];
+        for (int i = 0; i < length; i++) {
+            fen[i] = file.getByte(offset + 6 + i);
+        }
+        return new String(fen, StandardCharsets.US_ASCII);
+    }
+
+    public int[] getMoves(int game) {
+        long offset = recordOffset(game);
+        int plies = file.getShort(offset) & 0xFFFF;
+        long movesOffset = offset + 4;
+        if ((file.getByte(offset + 3) & FLAG_START_FEN) != 0) {
+            movesOffset += 2 + (file.getShort(offset + 4) & 0xFFFF);
+            movesOffset += movesOffset & 1;
+        }
+        int[] moves = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            moves[i] = file.getShort(movesOffset + 2L * i) & 0xFFFF;
+        }
+        return moves;
+    }
+
+    // Every game that reached the position, in game order, at most limit of them
+    public int[] findGames(long key, int limit) {
+        int[] games = new int[Math.min(limit, 64)];
+        int count = 0;
+        for (long entry = lowerBound(key); entry < indexEntries && keyAt(entry) == key && count < limit; entry++) {
+            if (count == games.length) {
+                games = Arrays.copyOf(games, Math.min(limit, count * 2));
+            }
+            games[count++] = (int) (valueAt(entry) >>> 32);
+        }
+        return Arrays.copyOf(games, count);
+    }
+
+    public int countGames(long key) {
+        long first = lowerBound(key);
+        long entry = first;
+        while (entry < indexEntries && keyAt(entry) == key) entry++;
+        return (int) (entry - first);
+    }
+
+    // Moves played from the position, most played first
+    public List<MoveStatistics> getStatistics(long key) {
+        List<MoveStatistics> statistics = new ArrayList<>();
+        for (long entry = lowerBound(key); entry < indexEntries && keyAt(entry) == key; entry++) {
+            long value = valueAt(entry);
+            int move = (int) (value & 0xFFFF);
+            if (move == 0) {
+                continue;
+            }
+            MoveStatistics moveStatistics = null;
+            for (MoveStatistics candidate : statistics) {
+                if (candidate.getMove() == move) {
+                    moveStatistics = candidate;
+                    break;
+                }
+            }
+            if (moveStatistics == null) {
+                moveStatistics = new MoveStatistics(move);
+                statistics.add(moveStatistics);
+            }
+            moveStatistics.add((int) (value >>> 16) & 3);
+        }
+        statistics.sort((a, b) -> Integer.compare(b.getGames(), a.getGames()));
+        return statistics;
+    }
+
+    // First index entry whose key is not below the given key
+    private long lowerBound(long key) {
+        long low = 0;
+        long high = indexEntries;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (keyAt(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(long entry) {
+        return file.getLong(indexOffset + entry * ENTRY_SIZE);
+    }
+
+    private long valueAt(long entry) {
+        return file.getLong(indexOffset + entry * ENTRY_SIZE + 8);
+    }
+
+    private long recordOffset(int game) {
+        if (game < 0 || game >= gameCount) {
+            throw new IllegalArgumentException("No game " + game);
+        }
+        return file.getLong(offsetsOffset + 8L * game);
+    }
+
+    static long pack(int game, int ply, int result, int move) {
+        return ((long) game << 32) | ((long) Math.min(ply, 0x3FFF) << 18) | ((long) result << 16) | (move & 0xFFFF);
+    }
+
+    public static int resultOf(String pgnResult) {
+        switch (pgnResult) {
+            case "1-0":
+                return WHITE_WIN;
+            case "0-1":
+                return BLACK_WIN;
+            case "1/2-1/2":
+                return DRAW;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
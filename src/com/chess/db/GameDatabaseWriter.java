@@ -0,0 +1,319 @@
+package com.chess.db;
+
+import com.chess.board.Position;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Writes a {@link GameDatabase}. Game records are streamed to the file as
+ * they are added; index entries are sorted in memory in runs of a bounded
+ * size, spilled to temporary files when a run fills, and merged into the
+ * index on close.
+ */
+public class GameDatabaseWriter implements Closeable {
+    // 4M entries: 64 MB of keys and values per sorted run
+    private static final int RUN_ENTRIES = 1 << 22;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private long offset = GameDatabase.HEADER_SIZE;
+    private long[] gameOffsets = new long[1024];
+    private int gameCount;
+
+    // Grown on demand up to RUN_ENTRIES, so small databases stay small in memory
+    private long[] runKeys = new long[1 << 16];
+    private long[] runValues = new long[1 << 16];
+    private int runSize;
+    private final List<Path> runs = new ArrayList<>();
+    private long indexEntries;
+
+    private final Position position = new Position();
+    private long[] gameKeys = new long[256];
+
+    public GameDatabaseWriter(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(GameDatabase.HEADER_SIZE);
+    }
+
+    /**
+     * Adds a game of legal moves from the start position and returns its
+     * number. Each position the game reaches is indexed once, even when it
+     * is repeated.
+     */
+    public int add(String startFen, int[] moves, int result) throws IOException {
+        if (moves.length > 0xFFFF) {
+            throw new IllegalArgumentException("Too many moves: " + moves.length);
+        }
+        int game = gameCount++;
+        if (game == gameOffsets.length) {
+            gameOffsets = Arrays.copyOf(gameOffsets, game * 2);
+        }
+        gameOffsets[game] = offset;
+
+        boolean customStart = !startFen.equals(Position.START_FEN);
+        ensureSpace(6);
+        buffer.putShort((short) moves.length).put((byte) result)
+            .put((byte) (customStart ? GameDatabase.FLAG_START_FEN : 0));
+        offset += 4;
+        if (customStart) {
+            byte[] fen = startFen.getBytes(StandardCharsets.US_ASCII);
+            buffer.putShort((short) fen.length);
+            offset += 2;
+            putBytes(fen);
+            if ((offset & 1) != 0) {
+                ensureSpace(1);
+                buffer.put((byte) 0);
+                offset++;
+            }
+        }
+        for (int move : moves) {
+            ensureSpace(2);
+            buffer.putShort((short) move);
+        }
+        offset += 2L * moves.length;
+
+        position.loadFen(startFen);
+        if (gameKeys.length < moves.length + 1) {
+            gameKeys = new long[Math.max(gameKeys.length * 2, moves.length + 1)];
+        }
+        for (int ply = 0; ply <= moves.length; ply++) {
+            long key = position.getKey();
+            gameKeys[ply] = key;
+            if (!isRepetition(ply, key)) {
+                addEntry(key, GameDatabase.pack(game, ply, result, ply < moves.length ? moves[ply] : 0));
+            }
+            if (ply < moves.length) {
+                position.makeMove(moves[ply]);
+            }
+        }
+        return game;
+    }
+
+    // A position can only recur since the last capture or pawn move, with the same side to move
+    private boolean isRepetition(int ply, long key) {
+        int earliest = Math.max(0, ply - position.getHalfmoveClock());
+        for (int i = ply - 2; i >= earliest; i -= 2) {
+            if (gameKeys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addEntry(long key, long value) throws IOException {
+        if (runSize == RUN_ENTRIES) {
+            spillRun();
+        } else if (runSize == runKeys.length) {
+            runKeys = Arrays.copyOf(runKeys, runSize * 2);
+            runValues = Arrays.copyOf(runValues, runSize * 2);
+        }
+        runKeys[runSize] = key;
+        runValues[runSize] = value;
+        runSize++;
+        indexEntries++;
+    }
+
+    private void spillRun() throws IOException {
+        sort(0, runSize);
+        Path run = Files.createTempFile(path.toAbsolutePath().getParent(), "index", ".run");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+            for (int i = 0; i < runSize; i++) {
+                out.writeLong(runKeys[i]);
+                out.writeLong(runValues[i]);
+            }
+        }
+        runs.add(run);
+        runSize = 0;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            pad(8);
+            long offsetsOffset = offset;
+            for (int i = 0; i < gameCount; i++) {
+                ensureSpace(8);
+                buffer.putLong(gameOffsets[i]);
+            }
+            offset += 8L * gameCount;
+
+            pad(GameDatabase.ENTRY_SIZE);
+            long indexOffset = offset;
+            if (runs.isEmpty()) {
+                sort(0, runSize);
+                for (int i = 0; i < runSize; i++) {
+                    putEntry(runKeys[i], runValues[i]);
+                }
+            } else {
+                if (runSize > 0) {
+                    spillRun();
+                }
+                mergeRuns();
+            }
+            flush();
+
+            ByteBuffer header = ByteBuffer.allocate(GameDatabase.HEADER_SIZE);
+            header.putInt(GameDatabase.MAGIC).putInt(GameDatabase.VERSION).putInt(gameCount).putInt(0)
+                .putLong(GameDatabase.HEADER_SIZE).putLong(offsetsOffset).putLong(indexOffset).putLong(indexEntries);
+            header.clear();
+            channel.write(header, 0);
+        } finally {
+            channel.close();
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private void mergeRuns() throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>((a, b) -> a.key != b.key
+            ? Long.compare(a.key, b.key) : Long.compare(a.value, b.value));
+        List<RunReader> readers = new ArrayList<>();
+        try {
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                putEntry(reader.key, reader.value);
+                if (reader.next()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.in.close();
+            }
+        }
+    }
+
+    private void putEntry(long key, long value) throws IOException {
+        ensureSpace(GameDatabase.ENTRY_SIZE);
+        buffer.putLong(key).putLong(value);
+        offset += GameDatabase.ENTRY_SIZE;
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        for (byte b : bytes) {
+            ensureSpace(1);
+            buffer.put(b);
+        }
+        offset += bytes.length;
+    }
+
+    private void pad(int alignment) throws IOException {
+        while (offset % alignment != 0) {
+            ensureSpace(1);
+            buffer.put((byte) 0);
+            offset++;
+        }
+    }
+
+    private void ensureSpace(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Quicksort of the run by key, then value, moving both arrays together
+    private void sort(int from, int to) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int middle = (from + to) >>> 1;
+            long pivotKey = runKeys[middle];
+            long pivotValue = runValues[middle];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (compare(i, pivotKey, pivotValue) < 0) i++;
+                while (compare(j, pivotKey, pivotValue) > 0) j--;
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            // Recurse into the smaller half so the stack stays logarithmic
+            if (j - from < to - i) {
+                sort(from, j + 1);
+                from = i;
+            } else {
+                sort(i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && compare(j - 1, runKeys[j], runValues[j]) > 0; j--) {
+                swap(j, j - 1);
+            }
+        }
+    }
+
+    private int compare(int index, long key, long value) {
+        int order = Long.compare(runKeys[index], key);
+        return order != 0 ? order : Long.compare(runValues[index], value);
+    }
+
+    private void swap(int a, int b) {
+        long key = runKeys[a];
+        runKeys[a] = runKeys[b];
+        runKeys[b] = key;
+        long value = runValues[a];
+        runValues[a] = runValues[b];
+        runValues[b] = value;
+    }
+
+    private static class RunReader {
+        private final DataInputStream in;
+        private long key;
+        private long value;
+
+        RunReader(Path run) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+        }
+
+        boolean next() throws IOException {
+            try {
+                key = in.readLong();
+                value = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.chess.db;
+
+/**
+ * How often one move was played from a position in the database, and how
+ * those games ended.
+ */
+public class MoveStatistics {
+    private final int move;
+    private int games;
+    private int whiteWins;
+    private int draws;
+    private int blackWins;
+
+    MoveStatistics(int move) {
+        this.move = move;
+    }
+
+    void add(int result) {
+        games++;
+        if (result == GameDatabase.WHITE_WIN) whiteWins++;
+        else if (result == GameDatabase.DRAW) draws++;
+        else if (result == GameDatabase.BLACK_WIN) blackWins++;
+    }
+
+    public int getMove() {
+        return move;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWhiteWins() {
+        return whiteWins;
+    }
+
+    public int getDraws() {
+        return draws;
+    }
+
+    public int getBlackWins() {
+        return blackWins;
+    }
+
+    // Points per decided or drawn game for White, 0.5 when no game has a result
+    public double getWhiteScore() {
+        int scored = whiteWins + draws + blackWins;
+        return scored == 0 ? 0.5 : (whiteWins + draws * 0.5) / scored;
+    }
+}
@@ -0,0 +1,69 @@
+package com.chess.engine;
+
+import com.chess.board.Attacks;
+import com.chess.board.PieceSquareTables;
+import com.chess.board.Position;
+
+import static com.chess.board.Position.*;
+
+/**
+ * Static evaluation in centipawns from the point of view of the side to move.
+ * Material and piece-square values come ready summed from the position, which
+ * updates them as moves are made, and are blended between their midgame and
+ * endgame values by the material left on the board. Mobility is the only term
+ * computed here, from the attack tables.
+ */
+public class Evaluator {
+    public static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+
+    // Centipawns per reachable square, for knights, bishops, rooks and queens
+    private static final int[] MOBILITY_WEIGHTS = {0, 4, 5, 2, 1, 0};
+
+    public int evaluate(Position position) {
+        int phase = Math.min(position.getPhase(), PieceSquareTables.MAX_PHASE);
+        int score = (position.getMidgameScore() * phase
+            + position.getEndgameScore() * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+        score += mobility(position, WHITE) - mobility(position, BLACK);
+        return position.getSideToMove() == WHITE ? score : -score;
+    }
+
+    /**
+     * Scores the first count positions into scores, each as evaluate would.
+     * Meant for callers with many positions at hand, such as tuning or
+     * labelling runs, that would otherwise go through them one call at a time.
+     */
+    public void evaluateAll(Position[] positions, int count, int[] scores) {
+        if (count > positions.length || count > scores.length) {
+            throw new IllegalArgumentException("Batch of " + count + " does not fit "
+                + positions.length + " positions and " + scores.length + " scores");
+        }
+        for (int i = 0; i < count; i++) {
+            scores[i] = evaluate(positions[i]);
+        }
+    }
+
+    // Squares the pieces reach that are neither own pieces nor covered by enemy pawns
+    private static int mobility(Position position, int color) {
+        long occupied = position.getOccupied();
+        long enemyPawns = position.getPieces(color ^ 1, PAWN);
+        long pawnAttacks = color == WHITE
+            ? ((enemyPawns >>> 9) & ~Attacks.FILE_H) | ((enemyPawns >>> 7) & ~Attacks.FILE_A)
+            : ((enemyPawns << 7) & ~Attacks.FILE_H) | ((enemyPawns << 9) & ~Attacks.FILE_A);
+        long available = ~position.getColorPieces(color) & ~pawnAttacks;
+
+        int score = 0;
+        for (long knights = position.getPieces(color, KNIGHT); knights != 0; knights &= knights - 1) {
+            score += MOBILITY_WEIGHTS[KNIGHT] * Long.bitCount(Attacks.knight(Long.numberOfTrailingZeros(knights)) & available);
+        }
+        for (long bishops = position.getPieces(color, BISHOP); bishops != 0; bishops &= bishops - 1) {
+            score += MOBILITY_WEIGHTS[BISHOP] * Long.bitCount(Attacks.bishop(Long.numberOfTrailingZeros(bishops), occupied) & available);
+        }
+        for (long rooks = position.getPieces(color, ROOK); rooks != 0; rooks &= rooks - 1) {
+            score += MOBILITY_WEIGHTS[ROOK] * Long.bitCount(Attacks.rook(Long.numberOfTrailingZeros(rooks), occupied) & available);
+        }
+        for (long queens = position.getPieces(color, QUEEN); queens != 0; queens &= queens - 1) {
+            score += MOBILITY_WEIGHTS[QUEEN] * Long.bitCount(Attacks.queen(Long.numberOfTrailingZeros(queens), occupied) & available);
+        }
+        return score;
+    }
+}
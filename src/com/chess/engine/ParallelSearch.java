@@ -0,0 +1,138 @@
+package com.chess.engine;
+
+import com.chess.board.KeyHistory;
+import com.chess.board.Move;
+import com.chess.board.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Lazy SMP: every thread runs its own iterative-deepening search of the same
+ * root and they only cooperate through the shared transposition table. Odd
+ * helpers start one ply deeper so the threads spread over adjacent depths.
+ * The calling thread runs the main search and enforces the limits; helpers are
+ * stopped when it returns.
+ */
+public class ParallelSearch {
+    private final TranspositionTable table;
+    private final Search[] workers;
+    private final ExecutorService helpers;
+
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one search thread is required");
+        }
+        this.table = table;
+        this.workers = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Search(table);
+            workers[i].setDepthOffset(i % 2);
+            workers[i].setAgesTable(false);
+        }
+        this.helpers = threads > 1
+            ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper");
+                thread.setDaemon(true);
+                return thread;
+            })
+            : null;
+    }
+
+    public SearchResult search(Position root, SearchLimits limits) {
+        return search(root, null, limits);
+    }
+
+    // Every thread takes its own copy of the history before it starts
+    public SearchResult search(Position root, KeyHistory history, SearchLimits limits) {
+        table.newSearch();
+        // Entry i - 1 belongs to helper i
+        List<Future<SearchResult>> futures = new ArrayList<>(workers.length - 1);
+        for (Search worker : workers) {
+            worker.resetNodes();
+        }
+        SearchLimits helperLimits = new SearchLimits().setDepth(limits.getDepth());
+        for (int i = 1; i < workers.length; i++) {
+            Search worker = workers[i];
+            futures.add(helpers.submit(() -> worker.search(root, history, helperLimits)));
+        }
+
+        SearchResult best = workers[0].search(root, history, limits);
+        long nodes = best.getNodes();
+        for (int i = 1; i < workers.length; i++) {
+            SearchResult result = awaitHelper(workers[i], futures.get(i - 1));
+            nodes += workers[i].getNodes();
+            // A helper that completed a deeper iteration, or any iteration when the
+            // main one was interrupted, has the better move. An interrupted helper
+            // may only have searched some of the root moves.
+            if (result != null && result.isComplete() && result.getBestMove() != Move.NONE
+                    && (result.getDepth() > best.getDepth() || !best.isComplete())) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.getPrincipalVariation(), best.getScore(), best.getDepth(), nodes,
+            best.getTimeMillis(), best.isComplete());
+    }
+
+    // A helper may only just be starting when the main search ends, so the
+    // stop request is repeated until the helper has actually returned
+    private SearchResult awaitHelper(Search worker, Future<SearchResult> future) {
+        while (true) {
+            worker.stop();
+            try {
+                return future.get(1, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Not finished yet, stop again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search thread failed", e.getCause());
+            }
+        }
+    }
+
+    // Progress is reported by the main search with the node count of all threads
+    public void setListener(Consumer<SearchResult> listener) {
+        workers[0].setListener(listener == null ? null : result -> listener.accept(
+            new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(), getNodes(),
+                result.getTimeMillis(), result.isComplete())));
+    }
+
+    // Approximate while a search is running, exact once it has returned
+    public long getNodes() {
+        long nodes = 0;
+        for (Search worker : workers) {
+            nodes += worker.getNodes();
+        }
+        return nodes;
+    }
+
+    public void stop() {
+        for (Search worker : workers) {
+            worker.stop();
+        }
+    }
+
+    public int getThreads() {
+        return workers.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public void shutdown() {
+        stop();
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
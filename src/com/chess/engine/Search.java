@@ -0,0 +1,354 @@
+package com.chess.engine;
+
+import com.chess.board.KeyHistory;
+import com.chess.board.Move;
+import com.chess.board.MoveList;
+import com.chess.board.Position;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Negamax alpha-beta with iterative deepening and a capture-only quiescence
+ * search. All per-ply state is preallocated, so a search does not allocate
+ * until it builds its result. One instance searches on one thread at a time;
+ * several instances may share a TranspositionTable.
+ */
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32000;
+    public static final int MATE = 30000;
+
+    private static final int DEFAULT_TABLE_MB = 16;
+    private static final int PV_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 20;
+    private static final int KILLER_SCORE = 1 << 19;
+
+    private final Position[] stack = new Position[MAX_PLY + 1];
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    // Positions played before the root; the search path itself is the stack
+    private final KeyHistory history = new KeyHistory();
+    private final Evaluator evaluator;
+    private final TranspositionTable table;
+
+    private volatile boolean stopped;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private int rootBestMove;
+    private int depthOffset;
+    private boolean agesTable = true;
+    private Consumer<SearchResult> listener;
+
+    public Search() {
+        this(new Evaluator(), new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    public Search(TranspositionTable table) {
+        this(new Evaluator(), table);
+    }
+
+    public Search(Evaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int i = 0; i <= MAX_PLY; i++) {
+            stack[i] = new Position();
+            moveLists[i] = new MoveList();
+        }
+    }
+
+    public SearchResult search(Position root, SearchLimits limits) {
+        return search(root, null, limits);
+    }
+
+    /**
+     * Searches with the keys of the positions that led to the root, so that
+     * lines repeating one of them score as draws. The history is copied and
+     * may change once the search has started.
+     */
+    public SearchResult search(Position root, KeyHistory gameHistory, SearchLimits limits) {
+        long start = System.nanoTime();
+        stopped = false;
+        nodes = 0;
+        nodeLimit = limits.getNodes();
+        deadline = limits.getTimeMillis() > 0 ? start + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        rootBestMove = Move.NONE;
+        for (int[] killer : killers) {
+            Arrays.fill(killer, Move.NONE);
+        }
+        stack[0].copyFrom(root);
+        if (gameHistory != null) {
+            history.copyFrom(gameHistory);
+        } else {
+            history.clear();
+        }
+        if (agesTable) {
+            table.newSearch();
+        }
+
+        SearchResult result = new SearchResult(new int[0], 0, 0, 0, 0, false);
+        for (int depth = 1 + depthOffset; depth <= limits.getDepth(); depth++) {
+            int score = negamax(0, depth, -INFINITY, INFINITY);
+            // An interrupted iteration is only trusted if nothing has completed yet
+            if (stopped && result.getDepth() > 0) {
+                break;
+            }
+            long elapsed = (System.nanoTime() - start) / 1_000_000L;
+            result = new SearchResult(Arrays.copyOf(pv[0], pvLength[0]), score, depth, nodes, elapsed, !stopped);
+            rootBestMove = result.getBestMove();
+            if (listener != null) {
+                listener.accept(result);
+            }
+
+            if (stopped || rootBestMove == Move.NONE || Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+        return new SearchResult(result.getPrincipalVariation(), result.getScore(), result.getDepth(), nodes,
+            (System.nanoTime() - start) / 1_000_000L, result.isComplete());
+    }
+
+    // Can be called from another thread to end the search early
+    public void stop() {
+        stopped = true;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // Starts iterative deepening this many plies deeper, so helper threads
+    // sharing a table work ahead of the main thread
+    public void setDepthOffset(int depthOffset) {
+        this.depthOffset = depthOffset;
+    }
+
+    // Lets a coordinator report totals before this worker's search has started
+    void resetNodes() {
+        nodes = 0;
+    }
+
+    // Receives the result of every completed iteration, on the searching thread
+    public void setListener(Consumer<SearchResult> listener) {
+        this.listener = listener;
+    }
+
+    // Threads sharing a table leave aging to whoever coordinates them
+    void setAgesTable(boolean agesTable) {
+        this.agesTable = agesTable;
+    }
+
+    private int negamax(int ply, int depth, int alpha, int beta) {
+        pvLength[ply] = ply;
+        Position position = stack[ply];
+        boolean inCheck = position.isInCheck(position.getSideToMove());
+        if (ply > 0 && (isRepetition(ply) || (KeyHistory.isFiftyMoveDraw(position)
+                && (!inCheck || moveLists[ply].generateLegal(position) > 0)))) {
+            return 0;
+        }
+        if (inCheck) {
+            depth++;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(ply, alpha, beta);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = position.getKey();
+        int hashMove = Move.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.move(entry);
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList list = moveLists[ply];
+        int count = list.generateLegal(position);
+        if (count == 0) {
+            return inCheck ? -MATE + ply : 0;
+        }
+        scoreMoves(ply, ply == 0 && rootBestMove != Move.NONE ? rootBestMove : hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        Position child = stack[ply + 1];
+        for (int i = 0; i < count; i++) {
+            int move = list.pickBest(i);
+            child.copyFrom(position);
+            child.makeMove(move);
+            int score = -negamax(ply + 1, depth - 1, -beta, -alpha);
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move)) {
+                            storeKiller(ply, move);
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+            : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestMove, scoreToTable(best, ply), depth, bound);
+        return best;
+    }
+
+    // A single earlier occurrence since the last irreversible move is scored
+    // as a draw: if repeating is best it can be repeated again
+    private boolean isRepetition(int ply) {
+        Position position = stack[ply];
+        long key = position.getKey();
+        int limit = Math.min(position.getHalfmoveClock(), ply + history.size());
+        for (int back = 4; back <= limit; back += 2) {
+            long earlier = back <= ply ? stack[ply - back].getKey() : history.get(back - ply);
+            if (earlier == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Mate scores are stored relative to the node rather than the root
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score + ply;
+        if (score <= -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) return score - ply;
+        if (score <= -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+        Position position = stack[ply];
+        boolean inCheck = position.isInCheck(position.getSideToMove());
+
+        int best = -INFINITY;
+        if (!inCheck) {
+            best = evaluator.evaluate(position);
+            if (best >= beta || ply >= MAX_PLY - 1) {
+                return best;
+            }
+            alpha = Math.max(alpha, best);
+        }
+
+        MoveList list = moveLists[ply];
+        int count = inCheck ? list.generateLegal(position) : list.generateCaptures(position);
+        if (inCheck && count == 0) {
+            return -MATE + ply;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluator.evaluate(position);
+        }
+        scoreMoves(ply, Move.NONE);
+
+        Position child = stack[ply + 1];
+        for (int i = 0; i < count; i++) {
+            int move = list.pickBest(i);
+            child.copyFrom(position);
+            child.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Returns true once the node or time budget is exhausted
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= nodeLimit) {
+            stopped = true;
+        } else if ((nodes & 2047) == 0 && System.nanoTime() >= deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    // Hash/PV move first, then captures by most valuable victim and least
+    // valuable attacker, then killers.
+    private void scoreMoves(int ply, int pvMove) {
+        Position position = stack[ply];
+        MoveList list = moveLists[ply];
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            int score;
+            if (move == pvMove) {
+                score = PV_SCORE;
+            } else if (Move.isCapture(move)) {
+                int victim = Move.flags(move) == Move.EN_PASSANT
+                    ? Position.PAWN
+                    : Position.typeOf(position.pieceAt(Move.to(move)));
+                int attacker = Position.typeOf(position.pieceAt(Move.from(move)));
+                score = CAPTURE_SCORE + Evaluator.PIECE_VALUES[victim] * 8 - attacker;
+            } else if (Move.isPromotion(move)) {
+                score = CAPTURE_SCORE + Evaluator.PIECE_VALUES[Move.promotionType(move)];
+            } else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = 0;
+            }
+            list.setScore(i, score);
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - ply - 1);
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+}
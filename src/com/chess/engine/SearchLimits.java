@@ -0,0 +1,55 @@
+package com.chess.engine;
+
+/**
+ * Budget for one search. Unset limits are unbounded; depth is always capped at
+ * {@link Search#MAX_PLY}.
+ */
+public class SearchLimits {
+    private int depth = Search.MAX_PLY;
+    private long nodes = Long.MAX_VALUE;
+    private long timeMillis;
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits().setDepth(depth);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits().setNodes(nodes);
+    }
+
+    public static SearchLimits time(long millis) {
+        return new SearchLimits().setTimeMillis(millis);
+    }
+
+    public static SearchLimits infinite() {
+        return new SearchLimits();
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public SearchLimits setDepth(int depth) {
+        this.depth = Math.max(1, Math.min(depth, Search.MAX_PLY - 1));
+        return this;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public SearchLimits setNodes(long nodes) {
+        this.nodes = nodes;
+        return this;
+    }
+
+    // Zero means no time limit
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public SearchLimits setTimeMillis(long timeMillis) {
+        this.timeMillis = timeMillis;
+        return this;
+    }
+}
@@ -0,0 +1,84 @@
+package com.chess.engine;
+
+import com.chess.board.Move;
+
+/**
+ * Outcome of the last completed iteration of a search, or of an interrupted
+ * first iteration when the search was stopped before any had completed.
+ */
+public class SearchResult {
+    private final int[] principalVariation;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+    private final boolean complete;
+
+    public SearchResult(int[] principalVariation, int score, int depth, long nodes, long timeMillis) {
+        this(principalVariation, score, depth, nodes, timeMillis, true);
+    }
+
+    public SearchResult(int[] principalVariation, int score, int depth, long nodes, long timeMillis,
+                        boolean complete) {
+        this.principalVariation = principalVariation;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+        this.complete = complete;
+    }
+
+    // Move.NONE when the side to move has no legal move
+    public int getBestMove() {
+        return principalVariation.length > 0 ? principalVariation[0] : Move.NONE;
+    }
+
+    public int[] getPrincipalVariation() {
+        return principalVariation.clone();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    // False when the iteration was stopped before it finished, so its best
+    // move only reflects the root moves searched so far
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public long getNodesPerSecond() {
+        return timeMillis > 0 ? nodes * 1000 / timeMillis : nodes;
+    }
+
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    public String getPrincipalVariationString() {
+        StringBuilder text = new StringBuilder();
+        for (int move : principalVariation) {
+            if (text.length() > 0) text.append(' ');
+            text.append(Move.toString(move));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + " score " + score + " nodes " + nodes + " time " + timeMillis
+            + " pv " + getPrincipalVariationString();
+    }
+}
@@ -0,0 +1,203 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hash table of search results shared by all search threads without locks.
+ * Each entry is two longs: the data word and the key XOR the data word. A
+ * torn write from two threads leaves a pair that no longer XORs back to the
+ * key, so it reads as a miss instead of as another position's data.
+ *
+ * Entries are grouped in buckets of four. A new result replaces the entry for
+ * the same position, otherwise the bucket entry with the lowest depth, where
+ * every search generation an entry has missed counts as a lost ply.
+ */
+public class TranspositionTable {
+    public static final long NO_ENTRY = 0L;
+
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    private static final int BYTES_PER_ENTRY = 16;
+    private static final int BUCKET_SIZE = 4;
+    private static final int AGE_MASK = 0x3F;
+    private static final int AGE_WEIGHT = 4;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int generation;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max((long) megabytes << 20, BYTES_PER_ENTRY * BUCKET_SIZE) / BYTES_PER_ENTRY;
+        int buckets = Integer.highestOneBit((int) Math.min(entries / BUCKET_SIZE, 1 << 28));
+        keys = new long[buckets * BUCKET_SIZE];
+        data = new long[buckets * BUCKET_SIZE];
+        bucketMask = buckets - 1;
+    }
+
+    // Called once per search so entries from earlier searches become cheaper to replace
+    public void newSearch() {
+        generation = (generation + 1) & AGE_MASK;
+    }
+
+    // Returns the packed entry for this key, or NO_ENTRY
+    public long probe(long key) {
+        probes.increment();
+        int base = bucketOf(key);
+        for (int slot = base; slot < base + BUCKET_SIZE; slot++) {
+            long entry = data[slot];
+            if (entry != NO_ENTRY && (keys[slot] ^ entry) == key) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return NO_ENTRY;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int base = bucketOf(key);
+        int victim = base;
+        int victimValue = Integer.MAX_VALUE;
+
+        for (int slot = base; slot < base + BUCKET_SIZE; slot++) {
+            long entry = data[slot];
+            if (entry == NO_ENTRY) {
+                if (victimValue > Integer.MIN_VALUE) {
+                    victim = slot;
+                    victimValue = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((keys[slot] ^ entry) == key) {
+                // A deeper bound from this search is worth more than a shallow refresh
+                if (bound != EXACT && age(entry) == generation && depth(entry) > depth + 2) {
+                    return;
+                }
+                if (move == 0) {
+                    move = move(entry);
+                }
+                write(slot, key, pack(move, score, depth, bound, generation));
+                return;
+            }
+            int value = depth(entry) - AGE_WEIGHT * ((generation - age(entry)) & AGE_MASK);
+            if (value < victimValue) {
+                victim = slot;
+                victimValue = value;
+            }
+        }
+
+        if (data[victim] != NO_ENTRY) {
+            collisions.increment();
+        }
+        write(victim, key, pack(move, score, depth, bound, generation));
+    }
+
+    private void write(int slot, long key, long entry) {
+        stores.increment();
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    private int bucketOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_SIZE;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        generation = 0;
+        resetStatistics();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public long getMemoryBytes() {
+        return (long) keys.length * BYTES_PER_ENTRY;
+    }
+
+    // Per-mille of sampled entries written during the current search
+    public int hashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (data[i] != NO_ENTRY && age(data[i]) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStores() {
+        return stores.sum();
+    }
+
+    // Stores that evicted the entry of a different position
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public double getHitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0.0 : (double) hits.sum() / total;
+    }
+
+    public void resetStatistics() {
+        probes.reset();
+        hits.reset();
+        stores.reset();
+        collisions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d MB, %d probes, %.1f%% hits, %d stores, %d collisions",
+            getMemoryBytes() >> 20, getProbes(), getHitRate() * 100, getStores(), getCollisions());
+    }
+
+    // Bits 0-15 move, 16-31 score, 32-39 depth, 40-41 bound, 42-47 generation
+    static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFL)
+            | ((score & 0xFFFFL) << 16)
+            | ((long) Math.min(depth, 255) << 32)
+            | ((long) bound << 40)
+            | ((long) age << 42);
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 16);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 40) & 3);
+    }
+
+    static int age(long entry) {
+        return (int) ((entry >>> 42) & AGE_MASK);
+    }
+}
@@ -0,0 +1,252 @@
+package com.chess.game;
+
+import com.chess.board.BoardState;
+import com.chess.board.KeyHistory;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.patterns.Observer;
+import com.chess.patterns.Subject;
+import com.chess.pieces.Piece;
+import com.chess.pieces.PieceFactory;
+import com.chess.players.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One game of chess with no user interface: the board, whose turn it is, the
+ * captured pieces and the game state. Games share no mutable state, so any
+ * number can run side by side; a single game is used from one thread at a time.
+ * Observers are notified after every move and after a reset.
+ */
+public class Game implements Subject {
+    private static final int BOARD_SIZE = 8;
+
+    private final GameRules gameRules;
+    private final PieceFactory pieceFactory = PieceFactory.getInstance();
+    private final Square[][] squares = new Square[BOARD_SIZE][BOARD_SIZE];
+    private final Position position = new Position();
+    // Keys since the last capture or pawn move, for the repetition rule
+    private final KeyHistory history = new KeyHistory();
+    // Castling rights and en-passant square for the moves on the squares
+    private final BoardState boardState = new BoardState();
+    private final List<Piece> capturedByWhite = new ArrayList<>();
+    private final List<Piece> capturedByBlack = new ArrayList<>();
+    private final List<Observer> observers = new ArrayList<>();
+    private Player currentPlayer;
+    private GameState state;
+    // Moves played since the start position, for export
+    private String startFen = Position.START_FEN;
+    private int[] moves = new int[256];
+    private int moveCount;
+
+    public Game() {
+        this(new GameRules());
+    }
+
+    public Game(GameRules gameRules) {
+        this.gameRules = gameRules;
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                squares[row][col] = new Square(row, col, (row + col) % 2 == 0);
+            }
+        }
+        setupPieces();
+    }
+
+    public void reset() {
+        setupPieces();
+        notifyObservers();
+    }
+
+    private void setupPieces() {
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                squares[row][col].setPiece(null);
+            }
+        }
+        String[] backRank = {"rook", "knight", "bishop", "queen", "king", "bishop", "knight", "rook"};
+        for (int col = 0; col < BOARD_SIZE; col++) {
+            placePiece(pieceFactory.createPiece(backRank[col], Player.BLACK), 0, col);
+            placePiece(pieceFactory.createPiece("pawn", Player.BLACK), 1, col);
+            placePiece(pieceFactory.createPiece("pawn", Player.WHITE), 6, col);
+            placePiece(pieceFactory.createPiece(backRank[col], Player.WHITE), 7, col);
+        }
+
+        position.loadSquares(squares, Player.WHITE);
+        boardState.set(position.getCastlingRights(), Position.NO_SQUARE);
+        startFen = Position.START_FEN;
+        history.clear();
+        moveCount = 0;
+        capturedByWhite.clear();
+        capturedByBlack.clear();
+        currentPlayer = Player.WHITE;
+        state = GameState.IN_PROGRESS;
+    }
+
+    // Replaces the board with a FEN position; captured pieces start empty
+    public void loadFen(String fen) {
+        position.loadFen(fen);
+        position.copyTo(squares);
+        boardState.set(position.getCastlingRights(), position.getEnPassantSquare());
+        startFen = position.toFen();
+        history.clear();
+        moveCount = 0;
+        capturedByWhite.clear();
+        capturedByBlack.clear();
+        currentPlayer = Position.playerOf(position.getSideToMove());
+        updateState();
+        notifyObservers();
+    }
+
+    public String toFen() {
+        return position.toFen();
+    }
+
+    public String getStartFen() {
+        return startFen;
+    }
+
+    public int[] getMoves() {
+        return Arrays.copyOf(moves, moveCount);
+    }
+
+    private void placePiece(Piece piece, int row, int col) {
+        squares[row][col].setPiece(piece);
+    }
+
+    public boolean isValidMove(Square from, Square to) {
+        return gameRules.isValidMove(from, to, squares, boardState);
+    }
+
+    // Whether the move takes a pawn to the last rank, so a piece has to be chosen
+    public boolean isPromotion(Square from, Square to) {
+        return gameRules.isPromotion(from, to);
+    }
+
+    // Tried on the game's own position and taken back, leaving the squares untouched
+    public boolean wouldLeaveKingInCheck(Square from, Square to) {
+        Piece piece = from.getPiece();
+        if (piece == null) {
+            return false;
+        }
+        position.makeMove(gameRules.toMove(from, to, Position.QUEEN));
+        boolean inCheck = position.isInCheck(Position.colorOf(piece.getPlayer()));
+        position.unmakeMove();
+        return inCheck;
+    }
+
+    // Plays the move if it is legal for the player to move; returns false
+    // otherwise. A pawn reaching the last rank becomes a queen.
+    public boolean makeMove(Square from, Square to) {
+        return makeMove(from, to, Position.QUEEN);
+    }
+
+    // The same, promoting to promotionType (Position.KNIGHT to QUEEN)
+    public boolean makeMove(Square from, Square to, int promotionType) {
+        if (promotionType < Position.KNIGHT || promotionType > Position.QUEEN) {
+            throw new IllegalArgumentException("Cannot promote to piece type " + promotionType);
+        }
+        Piece piece = from.getPiece();
+        if (isOver() || piece == null || piece.getPlayer() != currentPlayer) {
+            return false;
+        }
+        if (!isValidMove(from, to) || wouldLeaveKingInCheck(from, to)) {
+            return false;
+        }
+
+        movePiece(from, to, promotionType);
+        currentPlayer = currentPlayer == Player.WHITE ? Player.BLACK : Player.WHITE;
+        updateState();
+        notifyObservers();
+        return true;
+    }
+
+    // State of the game from the point of view of the player to move
+    private void updateState() {
+        if (gameRules.isCheckmate(currentPlayer, position)) {
+            state = currentPlayer == Player.WHITE ? GameState.BLACK_WIN : GameState.WHITE_WIN;
+        } else if (gameRules.isStalemate(currentPlayer, position)) {
+            state = GameState.STALEMATE;
+        } else if (KeyHistory.isFiftyMoveDraw(position) || history.isThreefold(position)) {
+            state = GameState.DRAW;
+        } else if (gameRules.isKingInCheck(currentPlayer, position)) {
+            state = GameState.CHECK;
+        } else {
+            state = GameState.IN_PROGRESS;
+        }
+    }
+
+    private void movePiece(Square from, Square to, int promotionType) {
+        // Keep the bitboard position and its key in step with the squares
+        int move = gameRules.toMove(from, to, promotionType);
+        history.push(position.getKey());
+        position.makeMove(move);
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+        }
+        moves[moveCount++] = move;
+
+        Piece captured = gameRules.makeMove(from, to, squares, boardState, promotionType);
+        if (captured != null) {
+            (currentPlayer == Player.WHITE ? capturedByWhite : capturedByBlack).add(captured);
+        }
+    }
+
+    public boolean isOver() {
+        return state != GameState.IN_PROGRESS && state != GameState.CHECK;
+    }
+
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    // Pieces taken by this player, in the order they were captured
+    public List<Piece> getCapturedPieces(Player player) {
+        return Collections.unmodifiableList(player == Player.WHITE ? capturedByWhite : capturedByBlack);
+    }
+
+    public Square getSquare(int row, int col) {
+        return squares[row][col];
+    }
+
+    public Square[][] getSquares() {
+        return squares;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+    public long getPositionKey() {
+        return position.getKey();
+    }
+
+    // Positions before the current one, for a search that should see repetitions
+    public KeyHistory getKeyHistory() {
+        return history;
+    }
+
+    @Override
+    public void addObserver(Observer observer) {
+        observers.add(observer);
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void notifyObservers() {
+        for (Observer observer : observers) {
+            observer.update();
+        }
+    }
+}
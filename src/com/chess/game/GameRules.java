@@ -1,29 +1,57 @@
 package com.chess.game;
 
+import com.chess.board.BoardState;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
 import com.chess.board.Square;
 import com.chess.pieces.King;
+import com.chess.pieces.Pawn;
 import com.chess.pieces.Piece;
+import com.chess.pieces.PieceFactory;
 import com.chess.players.Player;
 
 public class GameRules {
-    private static GameRules instance;
+    // Holder idiom: created once on first use, safely published to every thread
+    private static class Holder {
+        private static final GameRules INSTANCE = new GameRules();
+    }
     
-    private GameRules() {}
+    // Pieces are immutable, so every promotion to a given piece can share one
+    private static final Piece[][] PROMOTION_PIECES = new Piece[2][Position.QUEEN + 1];
+
+    static {
+        String[] names = {"pawn", "knight", "bishop", "rook", "queen"};
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            for (int type = Position.KNIGHT; type <= Position.QUEEN; type++) {
+                PROMOTION_PIECES[color][type] = PieceFactory.getInstance().createPiece(names[type],
+                    Position.playerOf(color));
+            }
+        }
+    }
+
+    // Per-thread position and move buffer for the grid-facing checks, which
+    // would otherwise build both on every call
+    private static final class Scratch {
+        final Position position = new Position();
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    public GameRules() {}
     
     public static GameRules getInstance() {
-        if (instance == null) {
-            instance = new GameRules();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
     
     public boolean isKingInCheck(Player player, Square[][] board) {
-        // Find the king's position
-        Square kingSquare = findKing(player, board);
-        if (kingSquare == null) return false;
-        
-        // Check if any opponent's piece can capture the king
-        return canAnyPieceReachSquare(getOpponent(player), kingSquare, board);
+        return isKingInCheck(player, load(board, player));
+    }
+    
+    // The position tracks both kings and caches its checkers, so this is a lookup
+    public boolean isKingInCheck(Player player, Position position) {
+        return position.isInCheck(Position.colorOf(player));
     }
     
     public boolean isCheckmate(Player player, Square[][] board) {
@@ -44,87 +72,171 @@ public class GameRules {
         return !hasAnyValidMove(player, board);
     }
     
+    // Same checks against a position with this player to move, as kept by ChessBoard
+    public boolean isCheckmate(Player player, Position position) {
+        return isKingInCheck(player, position) && !hasAnyValidMove(player, position);
+    }
+    
+    public boolean isStalemate(Player player, Position position) {
+        return !isKingInCheck(player, position) && !hasAnyValidMove(player, position);
+    }
+    
+    private boolean hasAnyValidMove(Player player, Position position) {
+        if (position.getSideToMove() != Position.colorOf(player)) {
+            throw new IllegalArgumentException(player + " is not to move in this position");
+        }
+        return MoveGenerator.hasLegalMove(position, SCRATCH.get().moves);
+    }
+    
     private boolean hasAnyValidMove(Player player, Square[][] board) {
-        for (int fromRow = 0; fromRow < 8; fromRow++) {
-            for (int fromCol = 0; fromCol < 8; fromCol++) {
-                Square fromSquare = board[fromRow][fromCol];
-                if (fromSquare.getPiece() != null && fromSquare.getPiece().getPlayer() == player) {
-                    if (hasValidMoves(fromSquare, board)) {
-                        return true;
-                    }
-                }
-            }
+        return hasAnyValidMove(player, board, null);
+    }
+    
+    // Without a state the grid is taken to allow neither castling nor en passant
+    private boolean hasAnyValidMove(Player player, Square[][] board, BoardState state) {
+        Position position = load(board, player);
+        position.setCastlingRights(state != null ? state.getCastlingRights() : 0);
+        if (state != null && state.getEnPassantSquare() != Position.NO_SQUARE) {
+            position.setEnPassantSquare(state.getEnPassantSquare());
         }
-        return false;
-    }
-    
-    private boolean hasValidMoves(Square fromSquare, Square[][] board) {
-        for (int toRow = 0; toRow < 8; toRow++) {
-            for (int toCol = 0; toCol < 8; toCol++) {
-                Square toSquare = board[toRow][toCol];
-                if (isValidMove(fromSquare, toSquare, board)) {
-                    // Try the move and see if it leaves king in check
-                    if (!wouldMoveLeaveKingInCheck(fromSquare, toSquare, board)) {
-                        return true;
-                    }
-                }
+        return MoveGenerator.hasLegalMove(position, SCRATCH.get().moves);
+    }
+    
+    // Same checks on a grid whose castling rights and en-passant square are in state
+    public boolean isCheckmate(Player player, Square[][] board, BoardState state) {
+        return isKingInCheck(player, board) && !hasAnyValidMove(player, board, state);
+    }
+    
+    public boolean isStalemate(Player player, Square[][] board, BoardState state) {
+        return !isKingInCheck(player, board) && !hasAnyValidMove(player, board, state);
+    }
+    
+    // Plays the move on a Position built from the grid, so the Squares are only read
+    public boolean wouldMoveLeaveKingInCheck(Square from, Square to, Square[][] board) {
+        Piece piece = from.getPiece();
+        if (piece == null) return false;
+
+        Position position = load(board, piece.getPlayer());
+        position.makeMove(toMove(from, to, Position.QUEEN));
+        return position.isInCheck(Position.colorOf(piece.getPlayer()));
+    }
+    
+    /**
+     * The grid move in Move's encoding, with the flags telling castling, en
+     * passant, double pawn pushes and promotions apart. A pawn reaching the
+     * last rank becomes promotionType (Position.KNIGHT to QUEEN).
+     */
+    public int toMove(Square from, Square to, int promotionType) {
+        Piece piece = from.getPiece();
+        int flags = to.getPiece() != null ? Move.CAPTURE : Move.QUIET;
+        if (piece instanceof Pawn) {
+            if (Math.abs(to.getRow() - from.getRow()) == 2) {
+                flags = Move.DOUBLE_PAWN_PUSH;
+            } else if (to.getCol() != from.getCol() && to.getPiece() == null) {
+                flags = Move.EN_PASSANT;
+            } else if (to.getRow() == 0 || to.getRow() == 7) {
+                flags |= Move.PROMOTION | (promotionType - Position.KNIGHT);
             }
+        } else if (isCastling(from, to)) {
+            flags = to.getCol() > from.getCol() ? Move.KING_CASTLE : Move.QUEEN_CASTLE;
         }
-        return false;
+        return Move.encode(Position.squareOf(from.getRow(), from.getCol()),
+            Position.squareOf(to.getRow(), to.getCol()), flags);
     }
     
-    public boolean wouldMoveLeaveKingInCheck(Square from, Square to, Square[][] board) {
-        // Save current state
-        Piece originalFromPiece = from.getPiece();
-        Piece originalToPiece = to.getPiece();
-        
-        // Make move
-        to.setPiece(from.getPiece());
+    public boolean isCastling(Square from, Square to) {
+        return from.getPiece() instanceof King && Math.abs(to.getCol() - from.getCol()) == 2;
+    }
+    
+    public boolean isPromotion(Square from, Square to) {
+        return from.getPiece() instanceof Pawn && (to.getRow() == 0 || to.getRow() == 7);
+    }
+    
+    /**
+     * Plays a move already found valid on the grid: moves the rook along when
+     * castling, takes the pawn captured en passant and promotes to
+     * promotionType. The state is updated and keeps what unmakeMove needs.
+     * Returns the captured piece, if any.
+     */
+    public Piece makeMove(Square from, Square to, Square[][] board, BoardState state, int promotionType) {
+        Piece piece = from.getPiece();
+        Piece captured = to.getPiece();
+        int row = from.getRow();
+        boolean pawn = piece instanceof Pawn;
+        boolean castling = isCastling(from, to);
+        if (pawn && captured == null && to.getCol() != from.getCol()) {
+            Square taken = board[row][to.getCol()];
+            captured = taken.getPiece();
+            taken.setPiece(null);
+        }
+        state.push(piece, captured);
+
+        to.setPiece(pawn && (to.getRow() == 0 || to.getRow() == 7)
+            ? PROMOTION_PIECES[Position.colorOf(piece.getPlayer())][promotionType] : piece);
         from.setPiece(null);
-        
-        // Check if king is in check
-        boolean kingInCheck = isKingInCheck(originalFromPiece.getPlayer(), board);
-        
-        // Restore original state
-        from.setPiece(originalFromPiece);
-        to.setPiece(originalToPiece);
-        
-        return kingInCheck;
+        if (castling) {
+            moveRook(board, row, to.getCol() > from.getCol() ? 7 : 0, to.getCol() > from.getCol() ? 5 : 3);
+        }
+        state.update(Position.squareOf(row, from.getCol()), Position.squareOf(to.getRow(), to.getCol()),
+            pawn && Math.abs(to.getRow() - row) == 2);
+        return captured;
     }
     
-    private Square findKing(Player player, Square[][] board) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board[row][col].getPiece();
-                if (piece instanceof King && piece.getPlayer() == player) {
-                    return board[row][col];
-                }
-            }
+    // Takes back the last move makeMove played from and to these squares
+    public void unmakeMove(Square from, Square to, Square[][] board, BoardState state) {
+        Piece piece = state.getLastMoved();
+        Piece captured = state.getLastCaptured();
+        state.pop();
+
+        from.setPiece(piece);
+        int row = from.getRow();
+        if (piece instanceof Pawn && to.getCol() != from.getCol()
+                && state.getEnPassantSquare() == Position.squareOf(to.getRow(), to.getCol())) {
+            to.setPiece(null);
+            board[row][to.getCol()].setPiece(captured);
+        } else {
+            to.setPiece(captured);
+        }
+        if (isCastling(from, to)) {
+            moveRook(board, row, to.getCol() > from.getCol() ? 5 : 3, to.getCol() > from.getCol() ? 7 : 0);
         }
-        return null;
-    }
-    
-    private boolean canAnyPieceReachSquare(Player player, Square targetSquare, Square[][] board) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Square square = board[row][col];
-                Piece piece = square.getPiece();
-                if (piece != null && piece.getPlayer() == player) {
-                    if (isValidMove(square, targetSquare, board)) {
-                        return true;
-                    }
-                }
+    }
+    
+    // The calling thread's scratch position, loaded from the grid
+    private static Position load(Square[][] board, Player sideToMove) {
+        Position position = SCRATCH.get().position;
+        position.loadSquares(board, sideToMove);
+        return position;
+    }
+    
+    private static void moveRook(Square[][] board, int row, int fromCol, int toCol) {
+        board[row][toCol].setPiece(board[row][fromCol].getPiece());
+        board[row][fromCol].setPiece(null);
+    }
+    
+    // Returns the legal move written in UCI notation (e2e4, e7e8q), or Move.NONE
+    public int parseMove(Position position, String text) {
+        int[] moves = SCRATCH.get().moves;
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        for (int i = 0; i < count; i++) {
+            if (Move.toString(moves[i]).equals(text)) {
+                return moves[i];
             }
         }
-        return false;
+        return Move.NONE;
     }
     
     public boolean isValidMove(Square from, Square to, Square[][] board) {
+        return isValidMove(from, to, board, null);
+    }
+    
+    // Also allows castling and en passant where the state permits them
+    public boolean isValidMove(Square from, Square to, Square[][] board, BoardState state) {
         Piece piece = from.getPiece();
         if (piece == null) return false;
         
         // Basic move validation
-        if (!piece.isValidMove(from, to, board)) {
+        if (!piece.isValidMove(from, to, board, state)) {
             return false;
         }
         
@@ -133,10 +245,11 @@ public class GameRules {
             return false;
         }
         
+        // The king may not castle out of check or across an attacked square
+        if (isCastling(from, to)) {
+            Square crossed = board[from.getRow()][(from.getCol() + to.getCol()) / 2];
+            return !isKingInCheck(piece.getPlayer(), board) && !wouldMoveLeaveKingInCheck(from, crossed, board);
+        }
         return true;
     }
-    
-    private Player getOpponent(Player player) {
-        return player == Player.WHITE ? Player.BLACK : Player.WHITE;
-    }
 }
@@ -1,7 +1,13 @@
 package com.chess.patterns;
 
+import com.chess.board.BoardState;
 import com.chess.board.Square;
 
 public interface MovementStrategy {
     boolean isValidMove(Square from, Square to, Square[][] board);
+
+    // With the castling rights and en-passant square; only kings and pawns use them
+    default boolean isValidMove(Square from, Square to, Square[][] board, BoardState state) {
+        return isValidMove(from, to, board);
+    }
 }
@@ -0,0 +1,157 @@
+package com.chess.pgn;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * One game as read from a PGN file: the tag pairs and the unparsed movetext.
+ * Reading only splits the file into games; the moves are resolved by
+ * {@link #replay}, which is the expensive part and can run on any thread.
+ */
+public class PgnGame {
+    private final Map<String, String> tags;
+    private final String movetext;
+
+    public PgnGame(Map<String, String> tags, String movetext) {
+        this.tags = tags;
+        this.movetext = movetext;
+    }
+
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    public String getMovetext() {
+        return movetext;
+    }
+
+    public String getResult() {
+        String result = tags.get("Result");
+        return result != null ? result : "*";
+    }
+
+    // The FEN tag when the game does not start from the initial position
+    public String getStartFen() {
+        String fen = tags.get("FEN");
+        return fen != null ? fen : Position.START_FEN;
+    }
+
+    /**
+     * Plays the mainline onto the position, which is first set to the start of
+     * the game, and returns the moves. Comments, variations, NAGs and move
+     * numbers are skipped. Throws IllegalArgumentException on a move that is
+     * not legal or not unambiguous.
+     */
+    public int[] replay(Position position) {
+        position.loadFen(getStartFen());
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[128];
+        int count = 0;
+        int length = movetext.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = movetext.charAt(i);
+            if (c <= ' ' || c == ')') {
+                // A stray closing parenthesis is left over from a malformed variation
+                i++;
+            } else if (c == '{') {
+                i = skipComment(i);
+            } else if (c == ';') {
+                while (i < length && movetext.charAt(i) != '\n') i++;
+            } else if (c == '(') {
+                i = skipVariation(i);
+            } else if (c == '$') {
+                i++;
+                while (i < length && Character.isDigit(movetext.charAt(i))) i++;
+            } else if (c == '*') {
+                break;
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && Character.isDigit(movetext.charAt(i))) i++;
+                // 1-0, 0-1 and 1/2-1/2 end the game; 12. and 12... are move numbers
+                if (i < length && (movetext.charAt(i) == '-' || movetext.charAt(i) == '/')
+                    && !isCastle(start)) {
+                    break;
+                }
+                if (i < length && movetext.charAt(i) == '.') {
+                    while (i < length && movetext.charAt(i) == '.') i++;
+                } else {
+                    i = tokenEnd(start);
+                    moves = append(moves, count++, play(position, start, i, buffer));
+                }
+            } else {
+                int start = i;
+                i = tokenEnd(start);
+                moves = append(moves, count++, play(position, start, i, buffer));
+            }
+        }
+        return Arrays.copyOf(moves, count);
+    }
+
+    private int tokenEnd(int start) {
+        int end = start;
+        while (end < movetext.length() && !isDelimiter(movetext.charAt(end))) end++;
+        return end;
+    }
+
+    private int play(Position position, int start, int end, int[] buffer) {
+        int move = San.parse(position, movetext, start, end, buffer);
+        if (move == Move.NONE) {
+            throw new IllegalArgumentException("Illegal move " + movetext.substring(start, end)
+                + " in position " + position.toFen());
+        }
+        position.makeMove(move);
+        return move;
+    }
+
+    private int skipComment(int i) {
+        int end = movetext.indexOf('}', i);
+        return end < 0 ? movetext.length() : end + 1;
+    }
+
+    // Variations nest and may contain comments with unbalanced parentheses
+    private int skipVariation(int i) {
+        int depth = 0;
+        while (i < movetext.length()) {
+            char c = movetext.charAt(i);
+            if (c == '{') {
+                i = skipComment(i);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private boolean isCastle(int start) {
+        return movetext.charAt(start) == '0' && start + 2 < movetext.length()
+            && movetext.charAt(start + 1) == '-' && movetext.charAt(start + 2) == '0';
+    }
+
+    private static boolean isDelimiter(char c) {
+        return c <= ' ' || c == '{' || c == '(' || c == ')' || c == ';' || c == '$';
+    }
+
+    private static int[] append(int[] moves, int index, int move) {
+        if (index == moves.length) {
+            moves = Arrays.copyOf(moves, index * 2);
+        }
+        moves[index] = move;
+        return moves;
+    }
+}
@@ -0,0 +1,155 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a PGN stream into games. The channel is read through one fixed
+ * buffer, so files of any size stream in constant memory apart from the game
+ * being assembled. Tag values are decoded as UTF-8; movetext is plain ASCII.
+ */
+public class PgnReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final StringBuilder movetext = new StringBuilder(1024);
+    private byte[] line = new byte[256];
+    private int lineLength;
+    // The first tag line of the next game, read while finishing the previous one
+    private boolean pendingLine;
+    private long lineNumber;
+    private long gameCount;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    public static PgnReader open(Path path) throws IOException {
+        return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    // Returns the next game, or null at the end of the input
+    public PgnGame next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        movetext.setLength(0);
+        int commentDepth = 0;
+
+        while (pendingLine || readLine()) {
+            pendingLine = false;
+            int start = 0;
+            while (start < lineLength && line[start] <= ' ') start++;
+            if (start == lineLength) {
+                continue;
+            }
+
+            byte first = line[start];
+            if (commentDepth == 0 && first == '[') {
+                if (movetext.length() > 0) {
+                    pendingLine = true;
+                    break;
+                }
+                parseTag(tags, start);
+            } else if (commentDepth == 0 && first == '%') {
+                // Escape line, ignored by definition
+                continue;
+            } else {
+                for (int i = start; i < lineLength; i++) {
+                    char c = (char) (line[i] & 0xFF);
+                    if (c == '{') commentDepth++;
+                    else if (c == '}' && commentDepth > 0) commentDepth--;
+                    movetext.append(c);
+                }
+                movetext.append('\n');
+            }
+        }
+
+        if (tags.isEmpty() && movetext.length() == 0) {
+            return null;
+        }
+        gameCount++;
+        return new PgnGame(tags, movetext.toString());
+    }
+
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    // [Name "value"], with \" and \\ escapes inside the value
+    private void parseTag(Map<String, String> tags, int start) {
+        int nameStart = start + 1;
+        int nameEnd = nameStart;
+        while (nameEnd < lineLength && line[nameEnd] > ' ' && line[nameEnd] != '"') nameEnd++;
+        int open = nameEnd;
+        while (open < lineLength && line[open] != '"') open++;
+        int close = lineLength - 1;
+        while (close > open && line[close] != '"') close--;
+        if (nameEnd == nameStart || close <= open) {
+            throw new IllegalArgumentException("Line " + lineNumber + ": malformed tag");
+        }
+
+        String name = new String(line, nameStart, nameEnd - nameStart, StandardCharsets.US_ASCII);
+        String value = new String(line, open + 1, close - open - 1, StandardCharsets.UTF_8);
+        if (value.indexOf('\\') >= 0) {
+            value = value.replace("\\\"", "\"").replace("\\\\", "\\");
+        }
+        tags.put(name, value);
+    }
+
+    private boolean readLine() throws IOException {
+        lineLength = 0;
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read <= 0) {
+                    if (lineLength == 0) {
+                        return false;
+                    }
+                    lineNumber++;
+                    return true;
+                }
+            }
+
+            byte[] bytes = buffer.array();
+            int offset = buffer.position();
+            int limit = buffer.limit();
+            int end = offset;
+            while (end < limit && bytes[end] != '\n') end++;
+            int length = end - offset;
+            if (lineLength + length > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+            }
+            System.arraycopy(bytes, offset, line, lineLength, length);
+            lineLength += length;
+
+            if (end < limit) {
+                buffer.position(end + 1);
+                lineNumber++;
+                if (lineLength > 0 && line[lineLength - 1] == '\r') lineLength--;
+                return true;
+            }
+            buffer.position(limit);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
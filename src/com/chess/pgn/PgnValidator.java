@@ -0,0 +1,147 @@
+package com.chess.pgn;
+
+import com.chess.board.Position;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays every game of a PGN stream on a pool of worker threads. The calling
+ * thread only splits the input into games and hands them out in batches; the
+ * number of batches in flight is bounded, so memory stays flat however large
+ * the file is.
+ */
+public class PgnValidator {
+    private static final int BATCH_SIZE = 256;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final int threads;
+
+    public PgnValidator(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        this.threads = threads;
+    }
+
+    public Result validate(PgnReader reader) throws IOException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pgn-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore inFlight = new Semaphore(threads * 2);
+        Result result = new Result();
+        long start = System.nanoTime();
+
+        try {
+            long index = 0;
+            List<PgnGame> batch = new ArrayList<>(BATCH_SIZE);
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                batch.add(game);
+                if (batch.size() == BATCH_SIZE) {
+                    submit(workers, inFlight, batch, index, result);
+                    index += batch.size();
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(workers, inFlight, batch, index, result);
+            }
+            // Every permit back means every batch has finished
+            inFlight.acquire(threads * 2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            workers.shutdownNow();
+        }
+        result.nanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, List<PgnGame> batch, long firstIndex,
+            Result result) throws InterruptedException {
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                Position position = new Position();
+                long index = firstIndex;
+                for (PgnGame game : batch) {
+                    index++;
+                    try {
+                        result.plies.add(game.replay(position).length);
+                        result.valid.increment();
+                    } catch (IllegalArgumentException e) {
+                        result.invalid.increment();
+                        result.report("Game " + index + ": " + e.getMessage());
+                    }
+                }
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Counts for one run. The first errors are kept with the number of the
+     * game they were found in.
+     */
+    public static class Result {
+        private final LongAdder valid = new LongAdder();
+        private final LongAdder invalid = new LongAdder();
+        private final LongAdder plies = new LongAdder();
+        private final Queue<String> errors = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reported = new AtomicInteger();
+        private long nanos;
+
+        private void report(String error) {
+            if (reported.getAndIncrement() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        public long getGames() {
+            return valid.sum() + invalid.sum();
+        }
+
+        public long getValidGames() {
+            return valid.sum();
+        }
+
+        public long getInvalidGames() {
+            return invalid.sum();
+        }
+
+        public long getPlies() {
+            return plies.sum();
+        }
+
+        public List<String> getErrors() {
+            return new ArrayList<>(errors);
+        }
+
+        public long getTimeMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos);
+        }
+
+        public double getGamesPerSecond() {
+            return nanos == 0 ? 0 : getGames() * 1e9 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%,d games (%,d invalid), %,d plies in %,d ms, %,.0f games/s",
+                getGames(), getInvalidGames(), getPlies(), getTimeMillis(), getGamesPerSecond());
+        }
+    }
+}
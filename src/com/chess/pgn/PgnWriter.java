@@ -0,0 +1,136 @@
+package com.chess.pgn;
+
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.game.Game;
+import com.chess.game.GameState;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format: the seven tag roster first, movetext in
+ * SAN wrapped at 80 columns, and the result as the last token.
+ */
+public class PgnWriter implements Closeable, Flushable {
+    private static final int LINE_WIDTH = 80;
+    private static final String[] ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+
+    private final Writer writer;
+    private final Position position = new Position();
+    private final int[] buffer = new int[MoveGenerator.MAX_MOVES];
+    private final StringBuilder text = new StringBuilder(4096);
+    private final StringBuilder token = new StringBuilder(16);
+
+    public PgnWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    // A game played in the client; tags given here override the defaults
+    public void write(Game game, Map<String, String> tags) throws IOException {
+        Map<String, String> all = new LinkedHashMap<>(tags);
+        all.putIfAbsent("Result", resultOf(game.getState()));
+        write(all, game.getStartFen(), game.getMoves());
+    }
+
+    public void write(PgnGame game, int[] moves) throws IOException {
+        write(game.getTags(), game.getStartFen(), moves);
+    }
+
+    public void write(Map<String, String> tags, String startFen, int[] moves) throws IOException {
+        text.setLength(0);
+        String result = tags.getOrDefault("Result", "*");
+        for (String name : ROSTER) {
+            appendTag(name, tags.getOrDefault(name, name.equals("Result") ? "*" : "?"));
+        }
+        boolean setUp = !startFen.equals(Position.START_FEN);
+        if (setUp) {
+            appendTag("SetUp", "1");
+            appendTag("FEN", startFen);
+        }
+        // SetUp and FEN are written from the start position, never copied
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            String name = tag.getKey();
+            if (!isRoster(name) && !name.equals("SetUp") && !name.equals("FEN")) {
+                appendTag(tag.getKey(), tag.getValue());
+            }
+        }
+        text.append('\n');
+
+        position.loadFen(startFen);
+        int lineStart = text.length();
+        for (int i = 0; i < moves.length; i++) {
+            token.setLength(0);
+            boolean white = position.getSideToMove() == Position.WHITE;
+            if (white || i == 0) {
+                token.append(position.getFullmoveNumber()).append(white ? ". " : "... ");
+            }
+            San.append(token, position, moves[i], buffer);
+            position.makeMove(moves[i]);
+            lineStart = appendToken(lineStart);
+        }
+        token.setLength(0);
+        token.append(result);
+        appendToken(lineStart);
+        text.append("\n\n");
+        writer.append(text);
+    }
+
+    // Starts a new line when the token would run past the line width
+    private int appendToken(int lineStart) {
+        if (text.length() > lineStart) {
+            if (text.length() - lineStart + 1 + token.length() > LINE_WIDTH) {
+                text.append('\n');
+                lineStart = text.length();
+            } else {
+                text.append(' ');
+            }
+        }
+        text.append(token);
+        return lineStart;
+    }
+
+    private void appendTag(String name, String value) {
+        text.append('[').append(name).append(" \"")
+            .append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n");
+    }
+
+    private static boolean isRoster(String name) {
+        for (String tag : ROSTER) {
+            if (tag.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String resultOf(GameState state) {
+        switch (state) {
+            case WHITE_WIN:
+            case BLACK_RESIGNED:
+                return "1-0";
+            case BLACK_WIN:
+            case WHITE_RESIGNED:
+                return "0-1";
+            case STALEMATE:
+            case DRAW:
+                return "1/2-1/2";
+            default:
+                return "*";
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
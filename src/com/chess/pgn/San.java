@@ -0,0 +1,217 @@
+package com.chess.pgn;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+
+/**
+ * Standard Algebraic Notation. Moves are resolved against the legal moves of
+ * the position, so castling, en passant and promotion are handled and an
+ * ambiguous or illegal move is rejected rather than guessed.
+ */
+public final class San {
+    private static final char[] PIECE_LETTERS = {'P', 'N', 'B', 'R', 'Q', 'K'};
+
+    private San() {}
+
+    // Returns the legal move the text describes, or Move.NONE. The buffer must hold MoveGenerator.MAX_MOVES.
+    public static int parse(Position position, CharSequence text, int start, int end, int[] buffer) {
+        // Check, mate and annotation suffixes carry no move information
+        while (end > start && isSuffix(text.charAt(end - 1))) end--;
+        if (end - start < 2) {
+            return Move.NONE;
+        }
+
+        int count = MoveGenerator.generateLegalMoves(position, buffer);
+        char first = text.charAt(start);
+        if (first == 'O' || first == '0') {
+            int flags = castleFlags(text, start, end);
+            for (int i = 0; i < count; i++) {
+                if (flags != -1 && Move.flags(buffer[i]) == flags) {
+                    return buffer[i];
+                }
+            }
+            return Move.NONE;
+        }
+
+        int type = Position.PAWN;
+        int index = start;
+        int pieceType = pieceType(first);
+        if (pieceType != -1) {
+            type = pieceType;
+            index++;
+        }
+
+        int promotion = -1;
+        if (type == Position.PAWN) {
+            char last = text.charAt(end - 1);
+            int promotionType = pieceType(Character.toUpperCase(last));
+            if (promotionType >= Position.KNIGHT && promotionType <= Position.QUEEN && !isFile(last)) {
+                promotion = promotionType;
+                end--;
+                if (end > index && text.charAt(end - 1) == '=') end--;
+            }
+        }
+
+        if (end - index < 2 || !isFile(text.charAt(end - 2)) || !isRank(text.charAt(end - 1))) {
+            return Move.NONE;
+        }
+        int to = Position.square(text.charAt(end - 2) - 'a', text.charAt(end - 1) - '1');
+
+        // Whatever sits between the piece letter and the destination: file, rank and 'x'
+        int fromFile = -1;
+        int fromRank = -1;
+        for (int i = index; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (isFile(c)) {
+                fromFile = c - 'a';
+            } else if (isRank(c)) {
+                fromRank = c - '1';
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return Move.NONE;
+            }
+        }
+
+        int match = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = buffer[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to || Position.typeOf(position.pieceAt(from)) != type || Move.isCastle(move)) {
+                continue;
+            }
+            if ((fromFile != -1 && Position.fileOf(from) != fromFile)
+                || (fromRank != -1 && Position.rankOf(from) != fromRank)) {
+                continue;
+            }
+            if (Move.isPromotion(move) ? Move.promotionType(move) != promotion : promotion != -1) {
+                continue;
+            }
+            if (match != Move.NONE) {
+                return Move.NONE;
+            }
+            match = move;
+        }
+        return match;
+    }
+
+    public static int parse(Position position, CharSequence text) {
+        return parse(position, text, 0, text.length(), new int[MoveGenerator.MAX_MOVES]);
+    }
+
+    // Appends the SAN of a legal move, including the check or mate suffix
+    public static StringBuilder append(StringBuilder san, Position position, int move, int[] buffer) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int type = Position.typeOf(position.pieceAt(from));
+
+        if (Move.flags(move) == Move.KING_CASTLE) {
+            san.append("O-O");
+        } else if (Move.flags(move) == Move.QUEEN_CASTLE) {
+            san.append("O-O-O");
+        } else if (type == Position.PAWN) {
+            if (Move.isCapture(move)) {
+                san.append((char) ('a' + Position.fileOf(from))).append('x');
+            }
+            appendSquare(san, to);
+            if (Move.isPromotion(move)) {
+                san.append('=').append(PIECE_LETTERS[Move.promotionType(move)]);
+            }
+        } else {
+            san.append(PIECE_LETTERS[type]);
+            appendDisambiguation(san, position, move, type, buffer);
+            if (Move.isCapture(move)) {
+                san.append('x');
+            }
+            appendSquare(san, to);
+        }
+
+        Position next = new Position();
+        next.copyFrom(position);
+        next.makeMove(move);
+        if (next.isInCheck(next.getSideToMove())) {
+            san.append(MoveGenerator.hasLegalMove(next, buffer) ? '+' : '#');
+        }
+        return san;
+    }
+
+    public static String toString(Position position, int move) {
+        return append(new StringBuilder(8), position, move, new int[MoveGenerator.MAX_MOVES]).toString();
+    }
+
+    // File if it tells the candidates apart, else rank, else both
+    private static void appendDisambiguation(StringBuilder san, Position position, int move, int type, int[] buffer) {
+        int from = Move.from(move);
+        boolean ambiguous = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        int count = MoveGenerator.generateLegalMoves(position, buffer);
+        for (int i = 0; i < count; i++) {
+            int other = Move.from(buffer[i]);
+            if (other == from || Move.to(buffer[i]) != Move.to(move)
+                || Position.typeOf(position.pieceAt(other)) != type) {
+                continue;
+            }
+            ambiguous = true;
+            sameFile |= Position.fileOf(other) == Position.fileOf(from);
+            sameRank |= Position.rankOf(other) == Position.rankOf(from);
+        }
+        if (!ambiguous) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + Position.fileOf(from)));
+        } else if (!sameRank) {
+            san.append((char) ('1' + Position.rankOf(from)));
+        } else {
+            appendSquare(san, from);
+        }
+    }
+
+    private static void appendSquare(StringBuilder san, int square) {
+        san.append((char) ('a' + Position.fileOf(square))).append((char) ('1' + Position.rankOf(square)));
+    }
+
+    private static int castleFlags(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length == 3 && matchesCastle(text, start, end)) {
+            return Move.KING_CASTLE;
+        }
+        if (length == 5 && matchesCastle(text, start, end)) {
+            return Move.QUEEN_CASTLE;
+        }
+        return -1;
+    }
+
+    // O-O or O-O-O, also written with zeros
+    private static boolean matchesCastle(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            boolean expected = (i - start) % 2 == 0 ? (c == 'O' || c == '0') : c == '-';
+            if (!expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int pieceType(char c) {
+        for (int type = 0; type < PIECE_LETTERS.length; type++) {
+            if (PIECE_LETTERS[type] == c) {
+                return type;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static boolean isFile(char c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(char c) {
+        return c >= '1' && c <= '8';
+    }
+}
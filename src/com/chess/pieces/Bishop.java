@@ -6,7 +6,7 @@ import com.chess.players.Player;
 
 public class Bishop extends Piece {
     public Bishop(Player player) {
-        super(player, player == Player.WHITE ? "WBishop.png" : "BBishop.png");
+        super(player);
         this.movementStrategy = new BishopMovementStrategy();
     }
     
@@ -19,27 +19,6 @@ public class Bishop extends Piece {
 class BishopMovementStrategy implements MovementStrategy {
     @Override
     public boolean isValidMove(Square from, Square to, Square[][] board) {
-        int rowDiff = Math.abs(to.getRow() - from.getRow());
-        int colDiff = Math.abs(to.getCol() - from.getCol());
-        
-        if (rowDiff != colDiff) {
-            return false;
-        }
-        
-        int rowDir = Integer.compare(to.getRow(), from.getRow());
-        int colDir = Integer.compare(to.getCol(), from.getCol());
-        
-        int currentRow = from.getRow() + rowDir;
-        int currentCol = from.getCol() + colDir;
-        
-        while (currentRow != to.getRow() && currentCol != to.getCol()) {
-            if (board[currentRow][currentCol].getPiece() != null) {
-                return false;
-            }
-            currentRow += rowDir;
-            currentCol += colDir;
-        }
-        
-        return true;
+        return SlidingMoves.isValidBishopMove(from, to, board);
     }
 }
@@ -1,12 +1,14 @@
 package com.chess.pieces;
 
+import com.chess.board.BoardState;
+import com.chess.board.Position;
 import com.chess.board.Square;
 import com.chess.patterns.MovementStrategy;
 import com.chess.players.Player;
 
 public class King extends Piece {
     public King(Player player) {
-        super(player, player == Player.WHITE ? "WKing.png" : "BKing.png");
+        super(player);
         this.movementStrategy = new KingMovementStrategy();
     }
     
@@ -24,4 +26,33 @@ class KingMovementStrategy implements MovementStrategy {
         
         return rowDiff <= 1 && colDiff <= 1;
     }
+    
+    // Castling: two squares towards a rook the state still allows, with
+    // nothing in between. GameRules checks the squares the king crosses.
+    @Override
+    public boolean isValidMove(Square from, Square to, Square[][] board, BoardState state) {
+        if (isValidMove(from, to, board)) {
+            return true;
+        }
+        Player player = from.getPiece().getPlayer();
+        int homeRow = player == Player.WHITE ? 7 : 0;
+        if (state == null || from.getRow() != homeRow || to.getRow() != homeRow || from.getCol() != 4
+                || Math.abs(to.getCol() - 4) != 2) {
+            return false;
+        }
+        boolean kingside = to.getCol() == 6;
+        int right = player == Player.WHITE
+            ? (kingside ? Position.WHITE_KINGSIDE : Position.WHITE_QUEENSIDE)
+            : (kingside ? Position.BLACK_KINGSIDE : Position.BLACK_QUEENSIDE);
+        Piece rook = board[homeRow][kingside ? 7 : 0].getPiece();
+        if (!state.canCastle(right) || !(rook instanceof Rook) || rook.getPlayer() != player) {
+            return false;
+        }
+        for (int col = kingside ? 5 : 1; col <= (kingside ? 6 : 3); col++) {
+            if (board[homeRow][col].getPiece() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -6,7 +6,7 @@ import com.chess.players.Player;
 
 public class Knight extends Piece {
     public Knight(Player player) {
-        super(player, player == Player.WHITE ? "WKnight.png" : "BKnight.png");
+        super(player);
         this.movementStrategy = new KnightMovementStrategy();
     }
     
@@ -1,12 +1,14 @@
 package com.chess.pieces;
 
+import com.chess.board.BoardState;
+import com.chess.board.Position;
 import com.chess.board.Square;
 import com.chess.patterns.MovementStrategy;
 import com.chess.players.Player;
 
 public class Pawn extends Piece {
     public Pawn(Player player) {
-        super(player, player == Player.WHITE ? "WPawn.png" : "BPawn.png");
+        super(player);
         this.movementStrategy = new PawnMovementStrategy();
     }
     
@@ -45,4 +47,15 @@ class PawnMovementStrategy implements MovementStrategy {
         
         return false;
     }
+    
+    // En passant: a diagonal step onto the square the enemy pawn just skipped
+    @Override
+    public boolean isValidMove(Square from, Square to, Square[][] board, BoardState state) {
+        if (isValidMove(from, to, board)) {
+            return true;
+        }
+        int direction = (from.getPiece().getPlayer() == Player.WHITE) ? -1 : 1;
+        return state != null && state.getEnPassantSquare() == Position.squareOf(to.getRow(), to.getCol())
+            && to.getRow() - from.getRow() == direction && Math.abs(to.getCol() - from.getCol()) == 1;
+    }
 }
@@ -6,7 +6,7 @@ import com.chess.players.Player;
 
 public class Queen extends Piece {
     public Queen(Player player) {
-        super(player, player == Player.WHITE ? "WQueen.png" : "BQueen.png");
+        super(player);
         this.movementStrategy = new QueenMovementStrategy();
     }
     
@@ -17,12 +17,8 @@ public class Queen extends Piece {
 }
 
 class QueenMovementStrategy implements MovementStrategy {
-    private final RookMovementStrategy rookStrategy = new RookMovementStrategy();
-    private final BishopMovementStrategy bishopStrategy = new BishopMovementStrategy();
-    
     @Override
     public boolean isValidMove(Square from, Square to, Square[][] board) {
-        return rookStrategy.isValidMove(from, to, board) || 
-               bishopStrategy.isValidMove(from, to, board);
+        return SlidingMoves.isValidQueenMove(from, to, board);
     }
 }
@@ -6,7 +6,7 @@ import com.chess.players.Player;
 
 public class Rook extends Piece {
     public Rook(Player player) {
-        super(player, player == Player.WHITE ? "WRook.png" : "BRook.png");
+        super(player);
         this.movementStrategy = new RookMovementStrategy();
     }
     
@@ -19,24 +19,6 @@ public class Rook extends Piece {
 class RookMovementStrategy implements MovementStrategy {
     @Override
     public boolean isValidMove(Square from, Square to, Square[][] board) {
-        if (from.getRow() != to.getRow() && from.getCol() != to.getCol()) {
-            return false;
-        }
-        
-        int rowDir = Integer.compare(to.getRow(), from.getRow());
-        int colDir = Integer.compare(to.getCol(), from.getCol());
-        
-        int currentRow = from.getRow() + rowDir;
-        int currentCol = from.getCol() + colDir;
-        
-        while (currentRow != to.getRow() || currentCol != to.getCol()) {
-            if (board[currentRow][currentCol].getPiece() != null) {
-                return false;
-            }
-            currentRow += rowDir;
-            currentCol += colDir;
-        }
-        
-        return true;
+        return SlidingMoves.isValidRookMove(from, to, board);
     }
 }
@@ -0,0 +1,47 @@
+package com.chess.pieces;
+
+import com.chess.board.Attacks;
+import com.chess.board.Position;
+import com.chess.board.Square;
+
+/**
+ * Slider moves on a Square[][] board, answered from the attack tables rather
+ * than by stepping across the board. The piece's attacks from its square on
+ * an empty board settle whether the target lies on one of its lines, and the
+ * between table names the only squares that then need to be empty.
+ */
+final class SlidingMoves {
+    private SlidingMoves() {}
+
+    static boolean isValidRookMove(Square from, Square to, Square[][] board) {
+        int origin = squareOf(from);
+        return isClearLine(origin, squareOf(to), Attacks.rook(origin, 0L), board);
+    }
+
+    static boolean isValidBishopMove(Square from, Square to, Square[][] board) {
+        int origin = squareOf(from);
+        return isClearLine(origin, squareOf(to), Attacks.bishop(origin, 0L), board);
+    }
+
+    static boolean isValidQueenMove(Square from, Square to, Square[][] board) {
+        int origin = squareOf(from);
+        return isClearLine(origin, squareOf(to), Attacks.queen(origin, 0L), board);
+    }
+
+    private static boolean isClearLine(int origin, int target, long lines, Square[][] board) {
+        if ((lines & (1L << target)) == 0) {
+            return false;
+        }
+        for (long between = Attacks.between(origin, target); between != 0; between &= between - 1) {
+            int square = Long.numberOfTrailingZeros(between);
+            if (board[Position.rowOf(square)][Position.colOf(square)].getPiece() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int squareOf(Square square) {
+        return Position.squareOf(square.getRow(), square.getCol());
+    }
+}
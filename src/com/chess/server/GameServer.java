@@ -0,0 +1,212 @@
+package com.chess.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plain-text HTTP API over a SessionManager, served on virtual threads:
+ *
+ * <pre>
+ * POST   /games              new game; the body may hold a FEN  -> 201, session, or 503 when full
+ * GET    /games              number of sessions
+ * GET    /games/ID           session with its moves
+ * POST   /games/ID/moves     body "e2e4" or "e7e8q"             -> 200, or 409 if illegal or over
+ * DELETE /games/ID           ends the session                   -> 204
+ * </pre>
+ *
+ * A session is returned as "id", "fen", "state" and optionally "moves" lines.
+ * Bodies longer than MAX_BODY_BYTES are refused with 413, and sessions left
+ * untouched for the idle timeout are dropped by a periodic sweep. By default
+ * the server only listens on the loopback address.
+ *
+ * Usage: GameServer [--port N] [--bind ADDRESS] [--idle-minutes N] [--max-sessions N]
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final long DEFAULT_IDLE_MILLIS = 30 * 60 * 1000L;
+    private static final int BACKLOG = 4096;
+    // A FEN or a move fits many times over
+    static final int MAX_BODY_BYTES = 256;
+
+    static {
+        // Otherwise a reply written as headers then body can wait on a delayed ACK
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final SessionManager sessions;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long idleMillis;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GameServer(InetSocketAddress address, SessionManager sessions) throws IOException {
+        this(address, sessions, DEFAULT_IDLE_MILLIS);
+    }
+
+    public GameServer(InetSocketAddress address, SessionManager sessions, long idleMillis) throws IOException {
+        if (idleMillis < 1) {
+            throw new IllegalArgumentException("Idle timeout must be positive");
+        }
+        this.sessions = sessions;
+        this.idleMillis = idleMillis;
+        this.server = HttpServer.create(address, BACKLOG);
+        server.createContext("/games", this::handle);
+        server.setExecutor(executor);
+    }
+
+    // Idle sessions are looked for a few times per timeout, so one outlives it by a quarter at most
+    public void start() {
+        server.start();
+        long period = Math.max(1, idleMillis / 4);
+        sweeper.scheduleAtFixedRate(() -> sessions.removeIdle(idleMillis), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        server.stop(0);
+        sweeper.shutdown();
+        executor.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public SessionManager getSessions() {
+        return sessions;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            // path[0] is empty; the context also matches /gamesXYZ, which is not ours
+            String method = exchange.getRequestMethod();
+            if (path.length < 2 || !path[1].equals("games")) {
+                send(exchange, 404, "unknown request\n");
+                return;
+            }
+            if (path.length == 2) {
+                if (method.equals("POST")) {
+                    createGame(exchange);
+                } else if (method.equals("GET")) {
+                    send(exchange, 200, sessions.size() + "\n");
+                } else {
+                    send(exchange, 405, "method not allowed\n");
+                }
+                return;
+            }
+
+            GameSession session = sessions.get(path[2]);
+            if (session == null) {
+                send(exchange, 404, "no game " + path[2] + "\n");
+            } else if (path.length == 3 && method.equals("GET")) {
+                send(exchange, 200, session.describe(true));
+            } else if (path.length == 3 && method.equals("DELETE")) {
+                sessions.remove(session.getId());
+                send(exchange, 204, null);
+            } else if (path.length == 4 && path[3].equals("moves") && method.equals("POST")) {
+                playMove(exchange, session);
+            } else {
+                send(exchange, 404, "unknown request\n");
+            }
+        }
+    }
+
+    private void createGame(HttpExchange exchange) throws IOException {
+        String fen = readBody(exchange);
+        if (fen == null) {
+            refuseBody(exchange);
+            return;
+        }
+        try {
+            GameSession session = fen.isEmpty() ? sessions.create() : sessions.create(fen);
+            send(exchange, 201, session.describe(false));
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, "invalid fen: " + e.getMessage() + "\n");
+        } catch (IllegalStateException e) {
+            send(exchange, 503, "too many games\n");
+        }
+    }
+
+    private void playMove(HttpExchange exchange, GameSession session) throws IOException {
+        String move = readBody(exchange);
+        if (move == null) {
+            refuseBody(exchange);
+            return;
+        }
+        switch (session.play(move)) {
+            case PLAYED -> send(exchange, 200, session.describe(false));
+            case GAME_OVER -> send(exchange, 409, "game over\n");
+            default -> send(exchange, 409, "illegal move " + move + "\n");
+        }
+    }
+
+    // Null when the body is longer than MAX_BODY_BYTES; no more than that is read
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] bytes = body.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                return null;
+            }
+            return new String(bytes, StandardCharsets.UTF_8).trim();
+        }
+    }
+
+    // The rest of the body stays unread, so the connection cannot carry another request
+    private static void refuseBody(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Connection", "close");
+        send(exchange, 413, "body too long\n");
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        if (text == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        InetAddress bind = InetAddress.getLoopbackAddress();
+        long idleMillis = DEFAULT_IDLE_MILLIS;
+        int maxSessions = SessionManager.DEFAULT_MAX_SESSIONS;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port": port = Integer.parseInt(args[++i]); break;
+                case "--bind": bind = InetAddress.getByName(args[++i]); break;
+                case "--idle-minutes": idleMillis = Long.parseLong(args[++i]) * 60 * 1000; break;
+                case "--max-sessions": maxSessions = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("Usage: GameServer [--port N] [--bind ADDRESS] [--idle-minutes N]"
+                        + " [--max-sessions N]");
+                    System.exit(2);
+            }
+        }
+        GameServer server = new GameServer(new InetSocketAddress(bind, port), new SessionManager(maxSessions),
+            idleMillis);
+        server.start();
+        System.out.println("Listening on " + bind.getHostAddress() + ":" + server.getPort());
+    }
+}
@@ -0,0 +1,111 @@
+package com.chess.server;
+
+import com.chess.board.Move;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.game.Game;
+import com.chess.game.GameState;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One hosted game. Moves on the same session are applied one at a time in the
+ * order they take the lock; sessions never wait for each other. The lock is a
+ * ReentrantLock rather than synchronized so that virtual threads waiting for
+ * it release their carrier thread.
+ */
+public class GameSession {
+    public enum MoveStatus { PLAYED, ILLEGAL, GAME_OVER }
+
+    private final String id;
+    private final Game game;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    GameSession(String id, Game game) {
+        this.id = id;
+        this.game = game;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    // Plays a move in UCI notation (e2e4, e7e8q) through the game's own rules
+    public MoveStatus play(String text) {
+        if (text.length() != 4 && text.length() != 5) {
+            return MoveStatus.ILLEGAL;
+        }
+        int from;
+        int to;
+        int promotionType = Position.QUEEN;
+        try {
+            from = Move.parseSquare(text, 0);
+            to = Move.parseSquare(text, 2);
+        } catch (IllegalArgumentException e) {
+            return MoveStatus.ILLEGAL;
+        }
+        if (text.length() == 5) {
+            promotionType = "nbrq".indexOf(text.charAt(4)) + Position.KNIGHT;
+            if (promotionType < Position.KNIGHT) {
+                return MoveStatus.ILLEGAL;
+            }
+        }
+
+        lock.lock();
+        try {
+            lastAccessMillis = System.currentTimeMillis();
+            if (game.isOver()) {
+                return MoveStatus.GAME_OVER;
+            }
+            Square origin = game.getSquare(Position.rowOf(from), Position.colOf(from));
+            Square target = game.getSquare(Position.rowOf(to), Position.colOf(to));
+            // The promotion letter is required exactly when a pawn reaches the last rank
+            if (game.isPromotion(origin, target) != (text.length() == 5)) {
+                return MoveStatus.ILLEGAL;
+            }
+            boolean played = game.makeMove(origin, target, promotionType);
+            return played ? MoveStatus.PLAYED : MoveStatus.ILLEGAL;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public GameState getState() {
+        lock.lock();
+        try {
+            return game.getState();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The session as text: id, FEN and state, one "name value" pair per
+     * line, followed by the moves played when withMoves is set.
+     */
+    public String describe(boolean withMoves) {
+        StringBuilder text = new StringBuilder(128);
+        lock.lock();
+        try {
+            lastAccessMillis = System.currentTimeMillis();
+            text.append("id ").append(id).append('\n');
+            text.append("fen ").append(game.toFen()).append('\n');
+            text.append("state ").append(game.getState()).append('\n');
+            if (withMoves) {
+                text.append("moves");
+                for (int move : game.getMoves()) {
+                    text.append(' ').append(Move.toString(move));
+                }
+                text.append('\n');
+            }
+        } finally {
+            lock.unlock();
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.chess.server;
+
+import com.chess.game.Game;
+import com.chess.game.GameRules;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The hosted games by ID. Lookups and creation go through a concurrent map,
+ * so there is no lock shared between sessions; each session orders its own
+ * moves. All games share the stateless GameRules instance. The number of
+ * sessions is capped, so abandoned games cannot grow the map without bound.
+ */
+public class SessionManager {
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+
+    private final Map<String, GameSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final int maxSessions;
+    // Sessions held or being created; checked against maxSessions before a game is added
+    private final AtomicInteger count = new AtomicInteger();
+
+    public SessionManager() {
+        this(DEFAULT_MAX_SESSIONS);
+    }
+
+    public SessionManager(int maxSessions) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("At least one session must be allowed");
+        }
+        this.maxSessions = maxSessions;
+    }
+
+    // Throws IllegalStateException when the manager is full
+    public GameSession create() {
+        return add(new Game(GameRules.getInstance()));
+    }
+
+    // Throws IllegalArgumentException for an invalid FEN, IllegalStateException when full
+    public GameSession create(String fen) {
+        Game game = new Game(GameRules.getInstance());
+        game.loadFen(fen);
+        return add(game);
+    }
+
+    private GameSession add(Game game) {
+        if (count.incrementAndGet() > maxSessions) {
+            count.decrementAndGet();
+            throw new IllegalStateException("Session limit of " + maxSessions + " reached");
+        }
+        GameSession session = new GameSession(Long.toString(nextId.getAndIncrement()), game);
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    // Null when there is no such session
+    public GameSession get(String id) {
+        return sessions.get(id);
+    }
+
+    public boolean remove(String id) {
+        if (sessions.remove(id) == null) {
+            return false;
+        }
+        count.decrementAndGet();
+        return true;
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // Drops sessions untouched for longer than the given time; returns how many went
+    public int removeIdle(long idleMillis) {
+        long cutoff = System.currentTimeMillis() - idleMillis;
+        int removed = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.getLastAccessMillis() < cutoff && sessions.remove(session.getId(), session)) {
+                count.decrementAndGet();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
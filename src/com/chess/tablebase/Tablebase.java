@@ -0,0 +1,312 @@
+package com.chess.tablebase;
+
+import com.chess.board.Position;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.chess.board.Position.*;
+
+/**
+ * The solved positions of one material signature such as "KQK" or "KRKP",
+ * the stronger side's pieces first. Positions are indexed directly by side to
+ * move and the square of every piece, so a probe is one multiplication per
+ * piece and a single array read. Identical pieces are stored in ascending
+ * square order and the other orders are left invalid.
+ *
+ * A table is kept in two files: NAME.wdl with two bits per position (0 draw,
+ * 1 win, 2 loss, 3 invalid) and NAME.dtm with one byte per position holding
+ * the distance to mate in plies plus one (0 draw, 255 invalid). Either file
+ * is enough to probe the result; the distance needs the .dtm file.
+ *
+ * Tables cover positions without castling rights or a capturable en-passant
+ * pawn, and ignore the fifty-move rule.
+ */
+public class Tablebase {
+    public static final int MAX_PIECES = 4;
+
+    static final int DRAW_CODE = 0;
+    static final int INVALID_CODE = 0xFF;
+    // Codes hold distance + 1, so the longest storable distance is 253 plies
+    static final int MAX_DISTANCE = 253;
+
+    private static final int WDL_DRAW = 0;
+    private static final int WDL_WIN = 1;
+    private static final int WDL_LOSS = 2;
+    private static final int WDL_INVALID = 3;
+    private static final String PIECE_LETTERS = "PNBRQK";
+
+    private final String name;
+    // Piece codes by slot, white (the stronger side) first
+    private final int[] pieces;
+    private final int size;
+    private final ByteBuffer wdl;
+    private final ByteBuffer dtm;
+    private final int maxDistance;
+
+    private Tablebase(String name, ByteBuffer wdl, ByteBuffer dtm) {
+        this.name = name;
+        this.pieces = parse(name);
+        this.size = 2 << (6 * pieces.length);
+        if (wdl != null && wdl.capacity() != (size + 3) / 4 || dtm != null && dtm.capacity() != size) {
+            throw new IllegalArgumentException("Wrong file size for " + name);
+        }
+        this.wdl = wdl;
+        this.dtm = dtm;
+        this.maxDistance = dtm != null ? scanMaxDistance(dtm) : -1;
+    }
+
+    // A generated table, from one code byte per index
+    Tablebase(String name, byte[] codes) {
+        this(name, pack(codes), ByteBuffer.wrap(codes));
+    }
+
+    public static Tablebase open(Path directory, String name) throws IOException {
+        Path wdlPath = directory.resolve(name + ".wdl");
+        Path dtmPath = directory.resolve(name + ".dtm");
+        if (!Files.exists(wdlPath) && !Files.exists(dtmPath)) {
+            throw new IllegalArgumentException("No table files for " + name + " in " + directory);
+        }
+        return new Tablebase(canonicalName(name), map(wdlPath), map(dtmPath));
+    }
+
+    private static ByteBuffer map(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    public void write(Path directory) throws IOException {
+        if (dtm == null) {
+            throw new IllegalStateException("Only generated or fully loaded tables can be written");
+        }
+        Files.createDirectories(directory);
+        write(directory.resolve(name + ".wdl"), wdl);
+        write(directory.resolve(name + ".dtm"), dtm);
+    }
+
+    private static void write(Path path, ByteBuffer buffer) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer source = buffer.duplicate().clear();
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPieceCount() {
+        return pieces.length;
+    }
+
+    int pieceAt(int slot) {
+        return pieces[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasDtm() {
+        return dtm != null;
+    }
+
+    // The longest distance to mate in plies, or -1 without the .dtm file
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    // Tablebases.WIN, DRAW or LOSS for the side to move at the index
+    int wdl(int index) {
+        if (dtm != null) {
+            int code = code(index);
+            return code == DRAW_CODE ? Tablebases.DRAW : (code & 1) == 0 ? Tablebases.WIN : Tablebases.LOSS;
+        }
+        int value = (wdl.get(index >>> 2) >>> ((index & 3) * 2)) & 3;
+        return value == WDL_WIN ? Tablebases.WIN : value == WDL_LOSS ? Tablebases.LOSS : Tablebases.DRAW;
+    }
+
+    int code(int index) {
+        return dtm.get(index) & 0xFF;
+    }
+
+    // Whether the position's white pieces are stored as the table's black ones
+    boolean isFlipped(Position position) {
+        return !materialOf(position, WHITE).equals(name.substring(0, name.indexOf('K', 1)));
+    }
+
+    /**
+     * The index of a position with this table's material. A flipped position
+     * is mirrored top to bottom with the colors swapped, which keeps its value.
+     */
+    int index(Position position, boolean flipped) {
+        int index = flipped ? position.getSideToMove() ^ 1 : position.getSideToMove();
+        int slot = 0;
+        while (slot < pieces.length) {
+            int piece = pieces[slot];
+            long squares = position.getPieces(flipped ? colorOf(piece) ^ 1 : colorOf(piece), typeOf(piece));
+            if (flipped) {
+                squares = Long.reverseBytes(squares);
+            }
+            for (; slot < pieces.length && pieces[slot] == piece; slot++) {
+                index = index << 6 | Long.numberOfTrailingZeros(squares);
+                squares &= squares - 1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Sets up the position at the index and returns false when the index does
+     * not stand for a legal position: pieces sharing a square, pawns on the
+     * first or last rank, identical pieces out of order or the side not to
+     * move in check.
+     */
+    boolean setup(int index, Position position) {
+        long occupied = 0;
+        int previous = NO_SQUARE;
+        int[] squares = new int[pieces.length];
+        for (int slot = pieces.length - 1; slot >= 0; slot--) {
+            squares[slot] = index & 63;
+            index >>>= 6;
+        }
+        for (int slot = 0; slot < pieces.length; slot++) {
+            int square = squares[slot];
+            if ((occupied & 1L << square) != 0) {
+                return false;
+            }
+            if (typeOf(pieces[slot]) == PAWN && (rankOf(square) == 0 || rankOf(square) == 7)) {
+                return false;
+            }
+            if (slot > 0 && pieces[slot] == pieces[slot - 1] && square < previous) {
+                return false;
+            }
+            occupied |= 1L << square;
+            previous = square;
+        }
+
+        position.clear();
+        for (int slot = 0; slot < pieces.length; slot++) {
+            position.putPiece(pieces[slot], squares[slot]);
+        }
+        position.setSideToMove(index);
+        return !position.isInCheck(index ^ 1);
+    }
+
+    /**
+     * The signature of a side's material, the king first and then queens,
+     * rooks, bishops, knights and pawns: "KRP".
+     */
+    static String materialOf(Position position, int color) {
+        StringBuilder material = new StringBuilder("K");
+        for (int type = QUEEN; type >= PAWN; type--) {
+            for (int count = Long.bitCount(position.getPieces(color, type)); count > 0; count--) {
+                material.append(PIECE_LETTERS.charAt(type));
+            }
+        }
+        return material.toString();
+    }
+
+    static String nameOf(Position position) {
+        return canonicalName(materialOf(position, WHITE), materialOf(position, BLACK));
+    }
+
+    // Orders both sides' pieces and puts the stronger side first: "KKQ" becomes "KQK"
+    public static String canonicalName(String name) {
+        String upper = name.toUpperCase();
+        int second = upper.indexOf('K', 1);
+        if (!upper.startsWith("K") || second < 0 || upper.indexOf('K', second + 1) >= 0) {
+            throw new IllegalArgumentException("Expected one king per side in " + name);
+        }
+        return canonicalName(sorted(upper.substring(0, second)), sorted(upper.substring(second)));
+    }
+
+    private static String canonicalName(String white, String black) {
+        int compare = Integer.compare(materialValue(white), materialValue(black));
+        if (compare == 0) {
+            compare = white.compareTo(black);
+        }
+        return compare >= 0 ? white + black : black + white;
+    }
+
+    private static String sorted(String side) {
+        StringBuilder sorted = new StringBuilder("K");
+        for (int type = QUEEN; type >= PAWN; type--) {
+            char letter = PIECE_LETTERS.charAt(type);
+            for (int i = 1; i < side.length(); i++) {
+                if (side.charAt(i) == letter) {
+                    sorted.append(letter);
+                }
+            }
+        }
+        if (sorted.length() != side.length()) {
+            throw new IllegalArgumentException("Unknown piece in " + side);
+        }
+        return sorted.toString();
+    }
+
+    private static int materialValue(String side) {
+        int value = 0;
+        for (int i = 1; i < side.length(); i++) {
+            value += switch (side.charAt(i)) {
+                case 'Q' -> 9;
+                case 'R' -> 5;
+                case 'B', 'N' -> 3;
+                default -> 1;
+            };
+        }
+        return value;
+    }
+
+    private static int[] parse(String name) {
+        if (name.length() > MAX_PIECES) {
+            throw new IllegalArgumentException("Tables hold at most " + MAX_PIECES + " pieces: " + name);
+        }
+        int second = name.indexOf('K', 1);
+        int[] pieces = new int[name.length()];
+        for (int i = 0; i < name.length(); i++) {
+            pieces[i] = piece(i < second ? WHITE : BLACK, PIECE_LETTERS.indexOf(name.charAt(i)));
+        }
+        return pieces;
+    }
+
+    private static ByteBuffer pack(byte[] codes) {
+        byte[] packed = new byte[(codes.length + 3) / 4];
+        for (int index = 0; index < codes.length; index++) {
+            int code = codes[index] & 0xFF;
+            int value = code == DRAW_CODE ? WDL_DRAW
+                : code == INVALID_CODE ? WDL_INVALID
+                : (code & 1) == 0 ? WDL_WIN : WDL_LOSS;
+            packed[index >>> 2] |= (byte) (value << ((index & 3) * 2));
+        }
+        return ByteBuffer.wrap(packed);
+    }
+
+    private static int scanMaxDistance(ByteBuffer dtm) {
+        int max = 0;
+        for (int index = 0; index < dtm.capacity(); index++) {
+            int code = dtm.get(index) & 0xFF;
+            if (code != INVALID_CODE && code > max + 1) {
+                max = code - 1;
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,344 @@
+package com.chess.tablebase;
+
+import com.chess.board.Attacks;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+
+import static com.chess.board.Position.*;
+
+/**
+ * Solves endgame tables by retrograde analysis. Pass 0 marks the invalid
+ * indices and the checkmates; pass n then finds every position decided in
+ * exactly n plies: a win when some move reaches a loss found in pass n - 1, a
+ * loss when every move reaches a win found by pass n - 1. Captures and
+ * promotions leave the table and are looked up in the smaller tables, which
+ * are generated first. Positions still open once the passes stop finding
+ * anything are draws.
+ *
+ * Each pass splits the index range over a fork/join pool. A pass only reads
+ * results of earlier passes, so the workers share the table without locks.
+ */
+public class TablebaseGenerator {
+    private static final int SPLIT_SIZE = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final Tablebases tablebases;
+    private Consumer<String> listener = message -> { };
+
+    public TablebaseGenerator(int threads) {
+        this(threads, new Tablebases());
+    }
+
+    // Tables already in the set are reused as they are; they need their .dtm files
+    public TablebaseGenerator(int threads, Tablebases tablebases) {
+        this.pool = new ForkJoinPool(threads);
+        this.tablebases = tablebases;
+    }
+
+    public void setListener(Consumer<String> listener) {
+        this.listener = listener;
+    }
+
+    public Tablebases getTablebases() {
+        return tablebases;
+    }
+
+    // Generates the table and every table it depends on that is still missing
+    public Tablebase generate(String name) {
+        String canonical = Tablebase.canonicalName(name);
+        Tablebase existing = tablebases.get(canonical);
+        if (existing != null) {
+            return existing;
+        }
+        for (String smaller : successors(canonical)) {
+            if (smaller.length() > 2) {
+                generate(smaller);
+            }
+        }
+
+        long start = System.nanoTime();
+        byte[] codes = new byte[2 << (6 * canonical.length())];
+        Tablebase shape = new Tablebase(canonical, codes);
+        int exitDistance = 0;
+        for (String smaller : successors(canonical)) {
+            if (smaller.length() > 2) {
+                exitDistance = Math.max(exitDistance, tablebases.get(smaller).getMaxDistance());
+            }
+        }
+
+        /*
+         * Once the exits can no longer decide anything, a position is only
+         * decided the pass after one of its successors is, so later passes
+         * visit just the predecessors of what the pass before found. An open
+         * en-passant capture hides such links, so tables with pawns on both
+         * sides scan every pass.
+         */
+        int fullPasses = hasPawnsOnBothSides(canonical) ? Integer.MAX_VALUE : exitDistance + 2;
+        byte[] candidates = new byte[codes.length];
+        byte[] next = new byte[codes.length];
+        int quietPasses = 0;
+        int pass = 0;
+        for (; quietPasses < 2 || pass < fullPasses; pass++) {
+            if (pass > Tablebase.MAX_DISTANCE) {
+                throw new IllegalStateException(canonical + " has mates longer than " + Tablebase.MAX_DISTANCE + " plies");
+            }
+            long found = pool.invoke(new Pass(shape, codes, pass, pass < fullPasses ? null : candidates, next,
+                0, codes.length));
+            quietPasses = found == 0 ? quietPasses + 1 : 0;
+            byte[] swap = candidates;
+            candidates = next;
+            next = swap;
+            Arrays.fill(next, (byte) 0);
+        }
+
+        Tablebase table = new Tablebase(canonical, codes);
+        tablebases.add(table);
+        listener.accept(String.format("%s: %,d positions, longest mate %d plies, %d passes, %,d ms",
+            canonical, codes.length, table.getMaxDistance(), pass, (System.nanoTime() - start) / 1_000_000));
+        return table;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // The tables reached by a capture or a promotion
+    private static String[] successors(String name) {
+        int second = name.indexOf('K', 1);
+        String white = name.substring(0, second);
+        String black = name.substring(second);
+        Set<String> names = new TreeSet<>();
+        for (int i = 1; i < name.length(); i++) {
+            if (i == second) {
+                continue;
+            }
+            boolean whitePiece = i < second;
+            String side = whitePiece ? white : black;
+            int at = whitePiece ? i : i - second;
+            String captured = side.substring(0, at) + side.substring(at + 1);
+            names.add(Tablebase.canonicalName(whitePiece ? captured + black : white + captured));
+            if (side.charAt(at) == 'P') {
+                for (char promotion : new char[] {'Q', 'R', 'B', 'N'}) {
+                    String promoted = side.substring(0, at) + promotion + side.substring(at + 1);
+                    names.add(Tablebase.canonicalName(whitePiece ? promoted + black : white + promoted));
+                }
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    private static boolean hasPawnsOnBothSides(String name) {
+        int second = name.indexOf('K', 1);
+        return name.lastIndexOf('P', second) > 0 && name.indexOf('P', second) > 0;
+    }
+
+    // ForkJoinTask is Serializable, but a pass is never serialized
+    private final class Pass extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Tablebase shape;
+        private final byte[] codes;
+        private final int pass;
+        // Indices to visit, or null to visit every open index
+        private final byte[] candidates;
+        // Marks the predecessors of what this pass decides
+        private final byte[] next;
+        private final int from;
+        private final int to;
+
+        Pass(Tablebase shape, byte[] codes, int pass, byte[] candidates, byte[] next, int from, int to) {
+            this.shape = shape;
+            this.codes = codes;
+            this.pass = pass;
+            this.candidates = candidates;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > SPLIT_SIZE) {
+                int middle = (from + to) >>> 1;
+                Pass left = new Pass(shape, codes, pass, candidates, next, from, middle);
+                left.fork();
+                long right = new Pass(shape, codes, pass, candidates, next, middle, to).compute();
+                return right + left.join();
+            }
+
+            Worker worker = new Worker(shape, codes);
+            long found = 0;
+            for (int index = from; index < to; index++) {
+                if (codes[index] != Tablebase.DRAW_CODE || candidates != null && candidates[index] == 0) {
+                    continue;
+                }
+                Position position = worker.positions[0];
+                if (!shape.setup(index, position)) {
+                    if (pass == 0) {
+                        codes[index] = (byte) Tablebase.INVALID_CODE;
+                    }
+                    continue;
+                }
+                int code = worker.solve(position, pass, 0);
+                if (code != Tablebase.DRAW_CODE) {
+                    codes[index] = (byte) code;
+                    worker.markPredecessors(index, position, next);
+                    found++;
+                }
+            }
+            return found;
+        }
+    }
+
+    // Buffers for one thread; a ply of look-ahead is only needed behind open en-passant captures
+    private final class Worker {
+        private static final int MAX_PLY = 8;
+
+        private final Tablebase shape;
+        private final byte[] codes;
+        private final Position[] positions = new Position[MAX_PLY + 1];
+        private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+        Worker(Tablebase shape, byte[] codes) {
+            this.shape = shape;
+            this.codes = codes;
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = new Position();
+            }
+        }
+
+        /**
+         * The code of the position if it is decided within limit plies by
+         * the results known so far, otherwise DRAW_CODE.
+         */
+        int solve(Position position, int limit, int ply) {
+            int[] buffer = moves[ply];
+            int count = MoveGenerator.generateLegalMoves(position, buffer);
+            if (count == 0) {
+                return position.isInCheck(position.getSideToMove()) ? 1 : Tablebase.DRAW_CODE;
+            }
+            if (limit == 0) {
+                return Tablebase.DRAW_CODE;
+            }
+
+            int fastestWin = Integer.MAX_VALUE;
+            int slowestLoss = 0;
+            boolean allLose = true;
+            Position child = positions[ply + 1];
+            for (int i = 0; i < count; i++) {
+                child.copyFrom(position);
+                child.makeMove(buffer[i]);
+                int code = lookup(child, buffer[i], limit - 1, ply + 1);
+                if (code == Tablebase.DRAW_CODE) {
+                    allLose = false;
+                } else if ((code & 1) != 0) {
+                    // The opponent is mated in code - 1 plies
+                    fastestWin = Math.min(fastestWin, code);
+                } else {
+                    slowestLoss = Math.max(slowestLoss, code);
+                }
+            }
+            if (fastestWin != Integer.MAX_VALUE) {
+                return fastestWin + 1;
+            }
+            return allLose ? slowestLoss + 1 : Tablebase.DRAW_CODE;
+        }
+
+        // The code of the child if it is decided within limit plies, otherwise DRAW_CODE
+        private int lookup(Position child, int move, int limit, int ply) {
+            int code;
+            if (child.getEnPassantSquare() != NO_SQUARE) {
+                code = ply < MAX_PLY ? solve(child, limit, ply) : Tablebase.DRAW_CODE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                code = exitCode(child);
+            } else {
+                code = codes[shape.index(child, false)] & 0xFF;
+            }
+            return code - 1 <= limit ? code : Tablebase.DRAW_CODE;
+        }
+
+        private int exitCode(Position child) {
+            if (Long.bitCount(child.getOccupied()) == 2) {
+                return Tablebase.DRAW_CODE;
+            }
+            Tablebase table = tablebases.find(child);
+            return table.code(table.index(child, table.isFlipped(child)));
+        }
+
+        /**
+         * Marks every index from which the side that just moved could have
+         * reached this position without a capture or promotion. Indices of
+         * illegal positions may be marked too; they are skipped as invalid.
+         */
+        void markPredecessors(int index, Position position, byte[] next) {
+            int count = shape.getPieceCount();
+            int mover = position.getSideToMove() ^ 1;
+            long empty = ~position.getOccupied();
+            int flipped = index ^ 1 << (6 * count);
+            for (int slot = 0; slot < count; slot++) {
+                int piece = shape.pieceAt(slot);
+                if (colorOf(piece) != mover) {
+                    continue;
+                }
+                int shift = 6 * (count - 1 - slot);
+                int square = (index >>> shift) & 63;
+                long origins = origins(piece, square, position.getOccupied()) & empty;
+                while (origins != 0) {
+                    int origin = Long.numberOfTrailingZeros(origins);
+                    origins &= origins - 1;
+                    next[canonical(flipped & ~(63 << shift) | origin << shift, slot, count)] = 1;
+                }
+            }
+        }
+
+        // The squares a piece on the square could have come from
+        private long origins(int piece, int square, long occupied) {
+            switch (typeOf(piece)) {
+                case PAWN: {
+                    int back = colorOf(piece) == WHITE ? -8 : 8;
+                    int rank = colorOf(piece) == WHITE ? rankOf(square) : 7 - rankOf(square);
+                    if (rank < 2 || (occupied & 1L << square + back) != 0) {
+                        return 0;
+                    }
+                    long origins = 1L << square + back;
+                    if (rank == 3) {
+                        origins |= 1L << square + 2 * back;
+                    }
+                    return origins;
+                }
+                case KNIGHT: return Attacks.knight(square);
+                case BISHOP: return Attacks.bishop(square, occupied);
+                case ROOK: return Attacks.rook(square, occupied);
+                case QUEEN: return Attacks.queen(square, occupied);
+                default: return Attacks.king(square);
+            }
+        }
+
+        // Swaps a moved piece with an identical neighbour that it passed
+        private int canonical(int index, int slot, int count) {
+            int piece = shape.pieceAt(slot);
+            int shift = 6 * (count - 1 - slot);
+            int square = (index >>> shift) & 63;
+            int neighbour = -1;
+            if (slot > 0 && shape.pieceAt(slot - 1) == piece && ((index >>> shift + 6) & 63) > square) {
+                neighbour = slot - 1;
+            } else if (slot + 1 < count && shape.pieceAt(slot + 1) == piece && ((index >>> shift - 6) & 63) < square) {
+                neighbour = slot + 1;
+            }
+            if (neighbour < 0) {
+                return index;
+            }
+            int otherShift = 6 * (count - 1 - neighbour);
+            int other = (index >>> otherShift) & 63;
+            return index & ~(63 << shift) & ~(63 << otherShift) | other << shift | square << otherShift;
+        }
+    }
+}
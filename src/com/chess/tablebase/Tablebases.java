@@ -0,0 +1,186 @@
+package com.chess.tablebase;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A set of tables probed by position. Bare kings are always a draw, and a
+ * position whose en-passant capture is still open is resolved by looking one
+ * move ahead. Safe to probe from several threads once the tables are added.
+ */
+public class Tablebases {
+    public static final int UNKNOWN = -2;
+    public static final int LOSS = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+
+    // Scores run from MATE for mate now towards zero, like search mate scores
+    private static final int MATE = 1000;
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+
+    private final Map<String, Tablebase> tables = new ConcurrentHashMap<>();
+
+    // Loads every table with a .wdl or .dtm file in the directory
+    public static Tablebases open(Path directory) throws IOException {
+        TreeSet<String> names = new TreeSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(file -> file.endsWith(".wdl") || file.endsWith(".dtm"))
+                .forEach(file -> names.add(file.substring(0, file.length() - 4)));
+        }
+        Tablebases tablebases = new Tablebases();
+        for (String name : names) {
+            tablebases.add(Tablebase.open(directory, name));
+        }
+        return tablebases;
+    }
+
+    public void add(Tablebase table) {
+        tables.put(table.getName(), table);
+    }
+
+    public Tablebase get(String name) {
+        return tables.get(Tablebase.canonicalName(name));
+    }
+
+    public Collection<Tablebase> getTables() {
+        return tables.values();
+    }
+
+    public boolean isEmpty() {
+        return tables.isEmpty();
+    }
+
+    // The table holding the position, or null
+    public Tablebase find(Position position) {
+        if (position.getCastlingRights() != 0
+                || Long.bitCount(position.getOccupied()) > Tablebase.MAX_PIECES) {
+            return null;
+        }
+        return tables.get(Tablebase.nameOf(position));
+    }
+
+    // WIN, DRAW or LOSS for the side to move, or UNKNOWN when no table holds the position
+    public int probeWdl(Position position) {
+        int score = probe(position, false);
+        return score == NO_SCORE ? UNKNOWN : Integer.signum(score);
+    }
+
+    // Plies to mate with best play on both sides, 0 for a draw, -1 when unknown
+    public int probeDtm(Position position) {
+        int score = probe(position, true);
+        return score == NO_SCORE ? -1 : score == 0 ? 0 : MATE - Math.abs(score);
+    }
+
+    /**
+     * The move that wins fastest, holds the draw, or loses slowest, or
+     * Move.NONE when the position is not in the tables. Without .dtm files
+     * the choice only keeps the result, so a win may not make progress.
+     */
+    public int bestMove(Position position) {
+        boolean distances = hasDistances(position);
+        if (probe(position, distances) == NO_SCORE) {
+            return Move.NONE;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        Position child = new Position();
+        int best = Move.NONE;
+        int bestScore = NO_SCORE;
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            int score = probe(child, distances);
+            if (score != NO_SCORE && -score > bestScore) {
+                best = moves[i];
+                bestScore = -score;
+            }
+        }
+        return best;
+    }
+
+    // Every move that keeps a won position won, for hints; empty unless the side to move wins
+    public List<Integer> winningMoves(Position position) {
+        List<Integer> winning = new ArrayList<>();
+        if (probeWdl(position) != WIN) {
+            return winning;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        Position child = new Position();
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            if (probeWdl(child) == LOSS) {
+                winning.add(moves[i]);
+            }
+        }
+        return winning;
+    }
+
+    private boolean hasDistances(Position position) {
+        Tablebase table = find(position);
+        return table != null && table.hasDtm();
+    }
+
+    /**
+     * The score of the position for the side to move, or NO_SCORE. With
+     * distances false the .wdl data is used and every win scores the same.
+     */
+    private int probe(Position position, boolean distances) {
+        if (Long.bitCount(position.getOccupied()) == 2) {
+            return 0;
+        }
+        if (position.getEnPassantSquare() != Position.NO_SQUARE) {
+            return search(position, distances);
+        }
+        Tablebase table = find(position);
+        if (table == null || distances && !table.hasDtm()) {
+            return NO_SCORE;
+        }
+        int index = table.index(position, table.isFlipped(position));
+        if (!distances) {
+            return table.wdl(index) * MATE;
+        }
+        int code = table.code(index);
+        if (code == Tablebase.DRAW_CODE) {
+            return 0;
+        }
+        int distance = code - 1;
+        return (distance & 1) != 0 ? MATE - distance : -MATE + distance;
+    }
+
+    // Negamax over the moves, for positions the tables do not index
+    private int search(Position position, boolean distances) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegalMoves(position, moves);
+        if (count == 0) {
+            return position.isInCheck(position.getSideToMove()) ? -MATE : 0;
+        }
+        Position child = new Position();
+        int best = NO_SCORE;
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(moves[i]);
+            int score = probe(child, distances);
+            if (score == NO_SCORE) {
+                return NO_SCORE;
+            }
+            best = Math.max(best, -score);
+        }
+        // One ply further from mate
+        return !distances || best == 0 ? best : best > 0 ? best - 1 : best + 1;
+    }
+}
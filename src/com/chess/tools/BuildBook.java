@@ -0,0 +1,62 @@
+package com.chess.tools;
+
+import com.chess.board.Position;
+import com.chess.book.OpeningBookWriter;
+import com.chess.book.PolyglotKey;
+import com.chess.db.GameDatabase;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds an opening book in the Polyglot format from PGN files. With
+ * --polyglot-keys the book is keyed for other Polyglot readers, using the
+ * given file of Polyglot random numbers.
+ *
+ * Usage: BuildBook OUTPUT [--plies N] [--polyglot-keys FILE] FILE...
+ */
+public class BuildBook {
+    private static final int DEFAULT_PLIES = 24;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BuildBook OUTPUT [--plies N] [--polyglot-keys FILE] FILE...");
+            System.exit(2);
+        }
+        int plies = DEFAULT_PLIES;
+        PolyglotKey polyglotKey = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--plies": plies = Integer.parseInt(args[++i]); break;
+                case "--polyglot-keys": polyglotKey = PolyglotKey.load(Path.of(args[++i])); break;
+                default: inputs.add(Path.of(args[i]));
+            }
+        }
+
+        OpeningBookWriter writer = polyglotKey != null
+            ? new OpeningBookWriter(plies, polyglotKey)
+            : new OpeningBookWriter(plies);
+        Position position = new Position();
+        long games = 0;
+        for (Path input : inputs) {
+            try (PgnReader reader = PgnReader.open(input)) {
+                PgnGame game;
+                while ((game = reader.next()) != null) {
+                    try {
+                        writer.add(game.getStartFen(), game.replay(position), GameDatabase.resultOf(game.getResult()));
+                        games++;
+                    } catch (IllegalArgumentException e) {
+                        System.out.println(input + " game " + reader.getGameCount() + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+        writer.write(Path.of(args[0]));
+        System.out.printf("%,d games, %,d positions%n", games, writer.getPositionCount());
+    }
+}
@@ -0,0 +1,53 @@
+package com.chess.tools;
+
+import com.chess.tablebase.Tablebase;
+import com.chess.tablebase.TablebaseGenerator;
+import com.chess.tablebase.Tablebases;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates endgame tables into a directory, together with the smaller
+ * tables they depend on. Tables already in the directory are reused.
+ *
+ * Usage: GenerateTablebases DIRECTORY [--threads N] SIGNATURE...
+ * for example: GenerateTablebases tables KQK KRK KPK KBNK
+ */
+public class GenerateTablebases {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GenerateTablebases DIRECTORY [--threads N] SIGNATURE...");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<String> names = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                names.add(args[i]);
+            }
+        }
+
+        Files.createDirectories(directory);
+        TablebaseGenerator generator = new TablebaseGenerator(threads, Tablebases.open(directory));
+        generator.setListener(System.out::println);
+        try {
+            for (String name : names) {
+                generator.generate(name);
+            }
+            for (Tablebase table : generator.getTablebases().getTables()) {
+                if (!Files.exists(directory.resolve(table.getName() + ".dtm"))) {
+                    table.write(directory);
+                }
+            }
+        } finally {
+            generator.shutdown();
+        }
+    }
+}
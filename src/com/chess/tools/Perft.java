@@ -0,0 +1,268 @@
+package com.chess.tools;
+
+import com.chess.board.BoardState;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.game.GameRules;
+import com.chess.players.Player;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts leaf nodes of the legal move tree. The RULES backend walks the
+ * Square[][] grid through GameRules and the piece movement strategies, with
+ * castling rights and the en-passant square kept in a BoardState; the
+ * GENERATOR backend uses MoveGenerator on a copy of the Position per ply and
+ * the UNMAKE backend plays and takes back every move on a single Position.
+ *
+ * Usage: Perft [--rules | --generator | --unmake] [--depth N] [--divide] [FEN]
+ */
+public class Perft {
+    public enum Backend { RULES, GENERATOR, UNMAKE }
+
+    private static final int MAX_DEPTH = 16;
+
+    // Name, FEN and expected node counts from depth 1 upwards
+    static final Object[][] REFERENCE_POSITIONS = {
+        {"start", Position.START_FEN,
+            new long[] {20L, 400L, 8902L, 197281L, 4865609L, 119060324L}},
+        {"kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            new long[] {48L, 2039L, 97862L, 4085603L, 193690690L}},
+        {"position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            new long[] {14L, 191L, 2812L, 43238L, 674624L, 11030083L, 178633661L}},
+        {"position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            new long[] {6L, 264L, 9467L, 422333L, 15833292L}},
+        {"position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            new long[] {44L, 1486L, 62379L, 2103487L, 89941194L}},
+        {"position6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+            new long[] {46L, 2079L, 89890L, 3894594L, 164075551L}},
+        // The rook on d2 is pinned on the a5-e1 diagonal and has no legal move
+        {"diagpin", "8/8/8/K7/8/8/3R4/2k1q3 w - - 0 1",
+            new long[] {5L, 85L, 1245L, 26284L, 356560L, 7876179L}},
+    };
+
+    private final Backend backend;
+    private final GameRules gameRules = GameRules.getInstance();
+    private final Position[] positions = new Position[MAX_DEPTH + 1];
+    private final int[][] moves = new int[MAX_DEPTH + 1][MoveGenerator.MAX_MOVES];
+
+    public Perft(Backend backend) {
+        this.backend = backend;
+        for (int i = 0; i <= MAX_DEPTH; i++) {
+            positions[i] = new Position();
+        }
+    }
+
+    public long perft(Position position, int depth) {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH);
+        }
+        if (backend == Backend.RULES) {
+            return rulesPerft(position.toSquares(), BoardState.of(position), Position.playerOf(position.getSideToMove()),
+                depth);
+        }
+        positions[0].copyFrom(position);
+        return backend == Backend.UNMAKE ? unmakePerft(positions[0], 0, depth) : generatorPerft(0, depth);
+    }
+
+    // Node count below each root move, keyed by the move in coordinate notation
+    public Map<String, Long> divide(Position position, int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (backend == Backend.RULES) {
+            Square[][] board = position.toSquares();
+            BoardState state = BoardState.of(position);
+            Player player = Position.playerOf(position.getSideToMove());
+            for (Square from : playerSquares(board, player)) {
+                for (Square[] row : board) {
+                    for (Square to : row) {
+                        if (!isLegal(from, to, board, state)) continue;
+
+                        boolean promotion = gameRules.isPromotion(from, to);
+                        for (int type = Position.QUEEN; type >= (promotion ? Position.KNIGHT : Position.QUEEN); type--) {
+                            gameRules.makeMove(from, to, board, state, type);
+                            long nodes = depth > 1 ? rulesPerft(board, state, opponent(player), depth - 1) : 1;
+                            gameRules.unmakeMove(from, to, board, state);
+                            counts.put(Move.toString(gameRules.toMove(from, to, type)), nodes);
+                        }
+                    }
+                }
+            }
+            return counts;
+        }
+
+        int count = MoveGenerator.generateLegalMoves(position, moves[0]);
+        for (int i = 0; i < count; i++) {
+            int move = moves[0][i];
+            positions[1].copyFrom(position);
+            positions[1].makeMove(move);
+            long nodes;
+            if (depth == 1) {
+                nodes = 1L;
+            } else if (backend == Backend.UNMAKE) {
+                nodes = unmakePerft(positions[1], 1, depth - 1);
+            } else {
+                nodes = generatorPerft(1, depth - 1);
+            }
+            counts.put(Move.toString(move), nodes);
+        }
+        return counts;
+    }
+
+    private long generatorPerft(int ply, int depth) {
+        Position position = positions[ply];
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generateLegalMoves(position, buffer);
+        if (depth == 1) {
+            return count;
+        }
+
+        Position child = positions[ply + 1];
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            child.copyFrom(position);
+            child.makeMove(buffer[i]);
+            nodes += generatorPerft(ply + 1, depth - 1);
+        }
+        return nodes;
+    }
+
+    private long unmakePerft(Position position, int ply, int depth) {
+        int[] buffer = moves[ply];
+        int count = MoveGenerator.generateLegalMoves(position, buffer);
+        if (depth == 1) {
+            return count;
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(buffer[i]);
+            nodes += unmakePerft(position, ply + 1, depth - 1);
+            position.unmakeMove();
+        }
+        return nodes;
+    }
+
+    // A promotion counts once per piece the pawn can become
+    private long rulesPerft(Square[][] board, BoardState state, Player player, int depth) {
+        long nodes = 0;
+        for (Square from : playerSquares(board, player)) {
+            for (Square[] row : board) {
+                for (Square to : row) {
+                    if (!isLegal(from, to, board, state)) continue;
+
+                    int lowest = gameRules.isPromotion(from, to) ? Position.KNIGHT : Position.QUEEN;
+                    if (depth == 1) {
+                        nodes += Position.QUEEN - lowest + 1;
+                        continue;
+                    }
+                    for (int type = Position.QUEEN; type >= lowest; type--) {
+                        gameRules.makeMove(from, to, board, state, type);
+                        nodes += rulesPerft(board, state, opponent(player), depth - 1);
+                        gameRules.unmakeMove(from, to, board, state);
+                    }
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private boolean isLegal(Square from, Square to, Square[][] board, BoardState state) {
+        return gameRules.isValidMove(from, to, board, state) && !gameRules.wouldMoveLeaveKingInCheck(from, to, board);
+    }
+
+    // Snapshot of the mover's squares, taken before the grid is mutated below
+    private Square[] playerSquares(Square[][] board, Player player) {
+        Square[] squares = new Square[16];
+        int count = 0;
+        for (Square[] row : board) {
+            for (Square square : row) {
+                if (square.getPiece() != null && square.getPiece().getPlayer() == player) {
+                    if (count == squares.length) {
+                        squares = Arrays.copyOf(squares, count * 2);
+                    }
+                    squares[count++] = square;
+                }
+            }
+        }
+        return Arrays.copyOf(squares, count);
+    }
+
+    private static Player opponent(Player player) {
+        return player == Player.WHITE ? Player.BLACK : Player.WHITE;
+    }
+
+    private static String formatRate(long nodes, long nanos) {
+        double nps = nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        return String.format("%,.0f nps", nps);
+    }
+
+    public static void main(String[] args) {
+        Backend backend = Backend.GENERATOR;
+        int depth = -1;
+        boolean divide = false;
+        StringBuilder fen = new StringBuilder();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rules": backend = Backend.RULES; break;
+                case "--generator": backend = Backend.GENERATOR; break;
+                case "--unmake": backend = Backend.UNMAKE; break;
+                case "--divide": divide = true; break;
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                default: fen.append(args[i]).append(' ');
+            }
+        }
+
+        Perft perft = new Perft(backend);
+        if (fen.length() > 0) {
+            Position position = Position.fromFen(fen.toString());
+            int searchDepth = depth > 0 ? depth : 4;
+            long start = System.nanoTime();
+            long nodes;
+            if (divide) {
+                nodes = 0;
+                for (Map.Entry<String, Long> entry : perft.divide(position, searchDepth).entrySet()) {
+                    System.out.println(entry.getKey() + ": " + entry.getValue());
+                    nodes += entry.getValue();
+                }
+            } else {
+                nodes = perft.perft(position, searchDepth);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("depth %d  nodes %d  time %d ms  %s%n",
+                searchDepth, nodes, elapsed / 1_000_000, formatRate(nodes, elapsed));
+            return;
+        }
+
+        // Reference suite: the rules backend is far slower, so it stops earlier by default
+        int maxDepth = depth > 0 ? depth : (backend == Backend.RULES ? 3 : 5);
+        boolean allPassed = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Object[] reference : REFERENCE_POSITIONS) {
+            Position position = Position.fromFen((String) reference[1]);
+            long[] expected = (long[]) reference[2];
+            for (int d = 1; d <= Math.min(maxDepth, expected.length); d++) {
+                long start = System.nanoTime();
+                long nodes = perft.perft(position, d);
+                long elapsed = System.nanoTime() - start;
+                boolean passed = nodes == expected[d - 1];
+                allPassed &= passed;
+                totalNodes += nodes;
+                totalNanos += elapsed;
+                System.out.printf("%-10s depth %d  nodes %12d  expected %12d  %5d ms  %18s  %s%n",
+                    reference[0], d, nodes, expected[d - 1], elapsed / 1_000_000,
+                    formatRate(nodes, elapsed), passed ? "OK" : "FAIL");
+            }
+        }
+        System.out.printf("%s backend: %d nodes in %d ms, %s%n",
+            backend, totalNodes, totalNanos / 1_000_000, formatRate(totalNodes, totalNanos));
+        if (!allPassed) {
+            System.exit(1);
+        }
+    }
+}
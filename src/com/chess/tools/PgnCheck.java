@@ -0,0 +1,37 @@
+package com.chess.tools;
+
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PgnValidator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Replays every game of one or more PGN files and reports illegal moves and
+ * ingest throughput.
+ *
+ * Usage: PgnCheck [--threads N] FILE...
+ */
+public class PgnCheck {
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean allValid = true;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+                continue;
+            }
+            try (PgnReader reader = PgnReader.open(Path.of(args[i]))) {
+                PgnValidator.Result result = new PgnValidator(threads).validate(reader);
+                for (String error : result.getErrors()) {
+                    System.out.println(error);
+                }
+                System.out.printf("%s: %s, %d threads%n", args[i], result, threads);
+                allValid &= result.getInvalidGames() == 0;
+            }
+        }
+        if (!allValid) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.chess.tools;
+
+import com.chess.board.Position;
+import com.chess.db.GameDatabase;
+import com.chess.db.GameDatabaseWriter;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Builds a game database from PGN files. Games with illegal moves are
+ * reported and left out.
+ *
+ * Usage: PgnToDatabase OUTPUT FILE...
+ */
+public class PgnToDatabase {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PgnToDatabase OUTPUT FILE...");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        long skipped = 0;
+        int games;
+        Position position = new Position();
+        try (GameDatabaseWriter writer = new GameDatabaseWriter(Path.of(args[0]))) {
+            for (int i = 1; i < args.length; i++) {
+                try (PgnReader reader = PgnReader.open(Path.of(args[i]))) {
+                    PgnGame game;
+                    while ((game = reader.next()) != null) {
+                        try {
+                            int[] moves = game.replay(position);
+                            writer.add(game.getStartFen(), moves, GameDatabase.resultOf(game.getResult()));
+                        } catch (IllegalArgumentException e) {
+                            skipped++;
+                            System.out.println(args[i] + " game " + reader.getGameCount() + ": " + e.getMessage());
+                        }
+                    }
+                }
+            }
+            games = writer.getGameCount();
+        }
+        // Includes sorting and writing the index on close
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%,d games, %,d skipped, %,d ms, %,.0f games/s%n", games, skipped,
+            elapsed / 1_000_000, games * 1e9 / elapsed);
+    }
+}
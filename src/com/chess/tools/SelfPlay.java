@@ -0,0 +1,91 @@
+package com.chess.tools;
+
+import com.chess.tournament.MoveChooser;
+import com.chess.tournament.Sprt;
+import com.chess.tournament.Tournament;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Plays a match between two move choosers and reports the Elo difference of
+ * the first. A chooser is "random" or a search budget: "depth=4",
+ * "nodes=20000" or "movetime=50", optionally with ",hash=MB". The openings
+ * file holds one FEN or line of UCI moves per line; '#' starts a comment.
+ *
+ * Usage: SelfPlay [--first SPEC] [--second SPEC] [--games N] [--workers N]
+ *        [--concurrency N] [--max-plies N] [--openings FILE]
+ *        [--sprt ELO0 ELO1] [--alpha A] [--beta B]
+ */
+public class SelfPlay {
+    private static final int REPORT_EVERY = 100;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String first = "nodes=10000";
+        String second = "nodes=10000";
+        List<String> openings = Tournament.DEFAULT_OPENINGS;
+        long games = 1000;
+        int workers = Runtime.getRuntime().availableProcessors();
+        int concurrency = 0;
+        int maxPlies = 400;
+        double elo0 = Double.NaN;
+        double elo1 = Double.NaN;
+        double alpha = 0.05;
+        double beta = 0.05;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--first": first = args[++i]; break;
+                    case "--second": second = args[++i]; break;
+                    case "--games": games = Long.parseLong(args[++i]); break;
+                    case "--workers": workers = Integer.parseInt(args[++i]); break;
+                    case "--concurrency": concurrency = Integer.parseInt(args[++i]); break;
+                    case "--max-plies": maxPlies = Integer.parseInt(args[++i]); break;
+                    case "--openings": openings = readOpenings(Path.of(args[++i])); break;
+                    case "--sprt":
+                        elo0 = Double.parseDouble(args[++i]);
+                        elo1 = Double.parseDouble(args[++i]);
+                        break;
+                    case "--alpha": alpha = Double.parseDouble(args[++i]); break;
+                    case "--beta": beta = Double.parseDouble(args[++i]); break;
+                    default: throw new IllegalArgumentException("Unknown argument " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage() != null ? e.getMessage() : "Missing value");
+            System.err.println("Usage: SelfPlay [--first SPEC] [--second SPEC] [--games N] [--workers N]"
+                + " [--concurrency N] [--max-plies N] [--openings FILE] [--sprt ELO0 ELO1] [--alpha A] [--beta B]");
+            System.exit(2);
+        }
+
+        Tournament tournament = new Tournament(MoveChooser.parse(first), MoveChooser.parse(second), openings)
+            .setMaxGames(games)
+            .setWorkers(workers)
+            .setConcurrency(concurrency > 0 ? concurrency : 4 * workers)
+            .setMaxPlies(maxPlies);
+        if (!Double.isNaN(elo0)) {
+            Sprt sprt = new Sprt(elo0, elo1, alpha, beta);
+            tournament.setSprt(sprt);
+            System.out.println(sprt);
+        }
+        AtomicLong reported = new AtomicLong();
+        tournament.setListener(result -> {
+            if (result.getGames() % REPORT_EVERY == 0 && reported.getAndSet(result.getGames()) != result.getGames()) {
+                System.out.println(result);
+            }
+        });
+        System.out.println(first + " vs " + second + ", " + workers + " workers");
+        System.out.println(tournament.run());
+    }
+
+    private static List<String> readOpenings(Path path) throws IOException {
+        return Files.readAllLines(path).stream()
+            .map(line -> line.replaceFirst("#.*", "").trim())
+            .filter(line -> !line.isEmpty())
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,247 @@
+package com.chess.tools;
+
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.server.GameServer;
+import com.chess.server.GameSession;
+import com.chess.server.SessionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test for GameServer: opens many sessions, each played by its own
+ * virtual thread making random legal moves, and reports moves per second and
+ * move latency percentiles. A semaphore caps the requests in flight, which is
+ * the number of client connections; latency is timed once a request holds
+ * one, so it leaves out the wait on the client side. Without --url the server
+ * runs in this JVM on a free port; --direct calls the SessionManager without
+ * HTTP, to separate the cost of the sessions from that of the transport.
+ *
+ * Usage: ServerLoadTest [--sessions N] [--connections N] [--seconds N] [--url URL | --direct]
+ */
+public class ServerLoadTest {
+    private final String baseUrl;
+    // Called in place of the HTTP API with --direct, otherwise null
+    private final SessionManager direct;
+    private final Semaphore connections;
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+
+    ServerLoadTest(String baseUrl, SessionManager direct, int connections) {
+        this.baseUrl = baseUrl;
+        this.direct = direct;
+        this.connections = new Semaphore(connections);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessionCount = 10_000;
+        int connectionCount = 256;
+        int seconds = 30;
+        String url = null;
+        boolean direct = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--sessions": sessionCount = Integer.parseInt(args[++i]); break;
+                case "--connections": connectionCount = Integer.parseInt(args[++i]); break;
+                case "--seconds": seconds = Integer.parseInt(args[++i]); break;
+                case "--url": url = args[++i]; break;
+                case "--direct": direct = true; break;
+                default:
+                    System.err.println("Usage: ServerLoadTest [--sessions N] [--connections N] [--seconds N]"
+                        + " [--url URL | --direct]");
+                    System.exit(2);
+            }
+        }
+        // Lets HttpURLConnection keep one idle connection per permit alive
+        System.setProperty("http.maxConnections", Integer.toString(connectionCount));
+
+        if (direct) {
+            new ServerLoadTest(null, new SessionManager(), connectionCount).run(sessionCount, seconds * 1000L);
+            return;
+        }
+        GameServer server = null;
+        if (url == null) {
+            server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), new SessionManager());
+            server.start();
+            url = "http://127.0.0.1:" + server.getPort();
+        }
+        try {
+            new ServerLoadTest(url, null, connectionCount).run(sessionCount, seconds * 1000L);
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    void run(int sessionCount, long millis) throws InterruptedException {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            clients.add(new Client(i));
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Client client : clients) {
+                threads.submit(() -> client.createGame());
+            }
+        }
+        long created = System.nanoTime();
+        System.out.printf("%,d sessions created in %,d ms%n", sessionCount, (created - start) / 1_000_000);
+
+        long deadline = created + millis * 1_000_000L;
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Client client : clients) {
+                threads.submit(() -> client.play(deadline));
+            }
+        }
+        double elapsed = (System.nanoTime() - created) / 1e9;
+
+        long[] all = clients.stream().flatMapToLong(client -> Arrays.stream(client.latencies, 0, client.count))
+            .sorted().toArray();
+        System.out.printf("%,d moves in %.1f s: %,.0f moves/s, %,d rejected, %,d games finished%n",
+            moves.sum(), elapsed, moves.sum() / elapsed, rejected.sum(), gamesFinished.sum());
+        if (all.length > 0) {
+            System.out.printf("move latency p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1] / 1e6);
+        }
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)] / 1e6;
+    }
+
+    // One client session: mirrors the game locally to pick legal moves
+    private final class Client {
+        private final Random random;
+        private final Position position = new Position();
+        private final int[] legal = new int[MoveGenerator.MAX_MOVES];
+        private String id;
+        private long[] latencies = new long[256];
+        private int count;
+        // Of the last request, from holding a connection to reading the reply
+        private long lastLatency;
+
+        Client(int seed) {
+            this.random = new Random(seed);
+        }
+
+        void createGame() {
+            try {
+                String body = request("POST", "/games", "");
+                id = body.substring(3, body.indexOf('\n'));
+                position.loadFen(Position.START_FEN);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot create a game", e);
+            }
+        }
+
+        void play(long deadline) {
+            try {
+                while (System.nanoTime() < deadline) {
+                    if (!playMove()) {
+                        // Game over: start a new one in its place
+                        gamesFinished.increment();
+                        request("DELETE", "/games/" + id, null);
+                        createGame();
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Session " + id + ": " + e.getMessage());
+            }
+        }
+
+        // Tries the legal moves in random order until the server accepts one
+        private boolean playMove() throws IOException {
+            int total = MoveGenerator.generateLegalMoves(position, legal);
+            for (int left = total; left > 0; left--) {
+                int pick = random.nextInt(left);
+                int move = legal[pick];
+                legal[pick] = legal[left - 1];
+
+                String body = request("POST", "/games/" + id + "/moves", Move.toString(move));
+                record(lastLatency);
+                if (body != null) {
+                    moves.increment();
+                    position.makeMove(move);
+                    return body.contains("state IN_PROGRESS") || body.contains("state CHECK");
+                }
+                rejected.increment();
+            }
+            return false;
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+
+        // The response body, or null for a 409 answer
+        private String request(String method, String path, String body) throws IOException {
+            connections.acquireUninterruptibly();
+            long start = System.nanoTime();
+            try {
+                if (direct != null) {
+                    return callDirect(method, path, body);
+                }
+                HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+                connection.setRequestMethod(method);
+                if (body != null) {
+                    connection.setDoOutput(true);
+                    try (OutputStream out = connection.getOutputStream()) {
+                        out.write(body.getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+                int status = connection.getResponseCode();
+                InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                String response = in != null ? new String(in.readAllBytes(), StandardCharsets.UTF_8) : "";
+                if (in != null) {
+                    in.close();
+                }
+                if (status == 409) {
+                    return null;
+                }
+                if (status >= 400) {
+                    throw new IOException(method + " " + path + ": " + status + " " + response.trim());
+                }
+                return response;
+            } finally {
+                lastLatency = System.nanoTime() - start;
+                connections.release();
+            }
+        }
+
+        // The same requests as the server handles, made on the SessionManager
+        private String callDirect(String method, String path, String body) {
+            if (path.equals("/games")) {
+                return direct.create().describe(false);
+            }
+            String sessionId = path.split("/")[2];
+            if (method.equals("DELETE")) {
+                direct.remove(sessionId);
+                return "";
+            }
+            GameSession session = direct.get(sessionId);
+            return session.play(body) == GameSession.MoveStatus.PLAYED ? session.describe(false) : null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.chess.tournament;
+
+import com.chess.board.KeyHistory;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.engine.Search;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.TranspositionTable;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Picks the move to play in a position. A chooser serves one game at a time,
+ * so a tournament takes a factory and asks it for a fresh chooser per game.
+ */
+@FunctionalInterface
+public interface MoveChooser {
+    // A legal move for the side to move; only called while one exists
+    int chooseMove(Position position);
+
+    // The same, knowing the positions before this one; only searches use them
+    default int chooseMove(Position position, KeyHistory history) {
+        return chooseMove(position);
+    }
+
+    // Each game gets its own Search and table, so games never share search state
+    static Supplier<MoveChooser> search(SearchLimits limits, int hashMegabytes) {
+        return () -> {
+            Search search = new Search(new TranspositionTable(hashMegabytes));
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            return new MoveChooser() {
+                @Override
+                public int chooseMove(Position position) {
+                    return chooseMove(position, null);
+                }
+
+                @Override
+                public int chooseMove(Position position, KeyHistory history) {
+                    int move = search.search(position, history, limits).getBestMove();
+                    // A search stopped inside its first iteration has no move yet
+                    return move != Move.NONE ? move
+                        : MoveGenerator.generateLegalMoves(position, moves) > 0 ? moves[0] : move;
+                }
+            };
+        };
+    }
+
+    // Uniformly random legal moves, seeded differently for every game
+    static Supplier<MoveChooser> random(long seed) {
+        AtomicLong games = new AtomicLong(seed);
+        return () -> {
+            Random random = new Random(games.getAndIncrement());
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            return position -> moves[random.nextInt(MoveGenerator.generateLegalMoves(position, moves))];
+        };
+    }
+
+    /**
+     * Parses "random" or a search budget such as "depth=4", "nodes=20000" or
+     * "movetime=50", optionally followed by ",hash=MB".
+     */
+    static Supplier<MoveChooser> parse(String spec) {
+        if (spec.equals("random")) {
+            return random(System.nanoTime());
+        }
+        SearchLimits limits = SearchLimits.infinite();
+        int hashMegabytes = 1;
+        boolean bounded = false;
+        for (String part : spec.split(",")) {
+            String[] pair = part.split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected name=value in " + spec);
+            }
+            try {
+                switch (pair[0]) {
+                    case "depth": limits.setDepth(Integer.parseInt(pair[1])); bounded = true; break;
+                    case "nodes": limits.setNodes(Long.parseLong(pair[1])); bounded = true; break;
+                    case "movetime": limits.setTimeMillis(Long.parseLong(pair[1])); bounded = true; break;
+                    case "hash": hashMegabytes = Integer.parseInt(pair[1]); break;
+                    default: throw new IllegalArgumentException("Unknown setting " + pair[0] + " in " + spec);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number in " + spec);
+            }
+        }
+        if (!bounded) {
+            throw new IllegalArgumentException("No depth, nodes or movetime in " + spec);
+        }
+        return search(limits, hashMegabytes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.chess.tournament;
+
+/**
+ * Sequential probability ratio test between two Elo hypotheses, H0: the
+ * difference is elo0, and H1: it is elo1. The log-likelihood ratio uses the
+ * normal approximation of the trinomial win/draw/loss model, so it only needs
+ * the three counts.
+ */
+public class Sprt {
+    public enum Decision { CONTINUE, ACCEPT_H0, ACCEPT_H1 }
+
+    private final double elo0;
+    private final double elo1;
+    private final double lowerBound;
+    private final double upperBound;
+
+    // alpha and beta are the false positive and false negative rates
+    public Sprt(double elo0, double elo1, double alpha, double beta) {
+        if (elo1 <= elo0) {
+            throw new IllegalArgumentException("elo1 must be above elo0");
+        }
+        if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+            throw new IllegalArgumentException("alpha and beta must lie between 0 and 1");
+        }
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    public double llr(long wins, long draws, long losses) {
+        long games = wins + draws + losses;
+        if (games == 0) {
+            return 0;
+        }
+        double score = (wins + draws / 2.0) / games;
+        double variance = (wins * sq(1 - score) + draws * sq(0.5 - score) + losses * sq(score)) / games;
+        if (variance == 0) {
+            return 0;
+        }
+        double score0 = expectedScore(elo0);
+        double score1 = expectedScore(elo1);
+        return games * (score1 - score0) * (2 * score - score0 - score1) / (2 * variance);
+    }
+
+    public Decision decide(double llr) {
+        return llr >= upperBound ? Decision.ACCEPT_H1 : llr <= lowerBound ? Decision.ACCEPT_H0 : Decision.CONTINUE;
+    }
+
+    public double getLowerBound() {
+        return lowerBound;
+    }
+
+    public double getUpperBound() {
+        return upperBound;
+    }
+
+    public static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    // The Elo difference for a score between 0 and 1
+    public static double elo(double score) {
+        if (score == 0.5) {
+            return 0;
+        }
+        double clamped = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    private static double sq(double value) {
+        return value * value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SPRT elo0=%.1f elo1=%.1f bounds [%.2f, %.2f]", elo0, elo1, lowerBound, upperBound);
+    }
+}
@@ -0,0 +1,342 @@
+package com.chess.tournament;
+
+import com.chess.board.KeyHistory;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.game.GameRules;
+import com.chess.game.GameState;
+import com.chess.players.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Plays a match between two move choosers. Every game runs on its own virtual
+ * thread and only blocks while a fixed pool of platform threads, one per core
+ * by default, chooses its moves; so thousands of games can wait cheaply while
+ * the searches keep every core busy. Each opening is played twice with the
+ * colors swapped.
+ *
+ * Games end by GameRules checkmate and stalemate, threefold repetition, the
+ * fifty-move rule, insufficient material, or a draw once maxPlies is reached.
+ * With an SPRT the match stops as soon as the test decides; games already
+ * running are finished and counted.
+ */
+public class Tournament {
+    public static final List<String> DEFAULT_OPENINGS = List.of(
+        "e2e4 e7e5 g1f3 b8c6", "e2e4 c7c5 g1f3 d7d6", "e2e4 e7e6 d2d4 d7d5", "e2e4 c7c6 d2d4 d7d5",
+        "d2d4 d7d5 c2c4 e7e6", "d2d4 g8f6 c2c4 g7g6", "d2d4 g8f6 c2c4 e7e6", "c2c4 e7e5 b1c3 g8f6",
+        "g1f3 d7d5 g2g3 g8f6", "e2e4 d7d5 e4d5 d8d5");
+
+    private final Supplier<MoveChooser> first;
+    private final Supplier<MoveChooser> second;
+    private final List<String> openings;
+    private final GameRules gameRules = new GameRules();
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int concurrency = 4 * workers;
+    private long maxGames = 1000;
+    private int maxPlies = 400;
+    private Sprt sprt;
+    private Consumer<Result> listener;
+
+    private long wins;
+    private long draws;
+    private long losses;
+    private long plies;
+    private long startNanos;
+    private volatile Throwable failure;
+
+    // Openings are FENs or UCI moves from the start position
+    public Tournament(Supplier<MoveChooser> first, Supplier<MoveChooser> second, List<String> openings) {
+        if (openings.isEmpty()) {
+            throw new IllegalArgumentException("At least one opening is required");
+        }
+        this.first = first;
+        this.second = second;
+        this.openings = new ArrayList<>();
+        for (String opening : openings) {
+            this.openings.add(toFen(opening));
+        }
+    }
+
+    // Platform threads choosing moves
+    public Tournament setWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required");
+        }
+        this.workers = workers;
+        return this;
+    }
+
+    // Games in flight, each on a virtual thread. More games than workers keep
+    // the workers busy, but every extra game may overshoot an SPRT decision
+    public Tournament setConcurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("At least one game must run");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public Tournament setMaxGames(long maxGames) {
+        this.maxGames = maxGames;
+        return this;
+    }
+
+    public Tournament setMaxPlies(int maxPlies) {
+        this.maxPlies = maxPlies;
+        return this;
+    }
+
+    public Tournament setSprt(Sprt sprt) {
+        this.sprt = sprt;
+        return this;
+    }
+
+    // Called after every game, from the thread that played it
+    public Tournament setListener(Consumer<Result> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public Result run() throws InterruptedException {
+        synchronized (this) {
+            wins = draws = losses = plies = 0;
+            startNanos = System.nanoTime();
+        }
+        failure = null;
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService searchPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ExecutorService games = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long game = 0; game < maxGames && !isDecided() && failure == null; game++) {
+                slots.acquire();
+                long number = game;
+                games.submit(() -> {
+                    try {
+                        record(play(number, searchPool));
+                    } catch (ExecutionException | RuntimeException e) {
+                        failure = e instanceof ExecutionException ? e.getCause() : e;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            searchPool.shutdownNow();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("A game failed: " + failure, failure);
+        }
+        return snapshot();
+    }
+
+    /**
+     * Plays one game and returns WHITE_WIN, BLACK_WIN or DRAW seen from the
+     * first chooser: WHITE_WIN means the first chooser won, whatever its color.
+     */
+    private GameState play(long number, ExecutorService searchPool) throws InterruptedException, ExecutionException {
+        Position position = Position.fromFen(openings.get((int) (number / 2 % openings.size())));
+        boolean firstIsWhite = number % 2 == 0;
+        MoveChooser[] choosers = new MoveChooser[2];
+        choosers[firstIsWhite ? Position.WHITE : Position.BLACK] = first.get();
+        choosers[firstIsWhite ? Position.BLACK : Position.WHITE] = second.get();
+
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+        KeyHistory history = new KeyHistory();
+        int ply = 0;
+        GameState outcome;
+        while (true) {
+            int us = position.getSideToMove();
+            Player player = Position.playerOf(us);
+            if (gameRules.isCheckmate(player, position)) {
+                outcome = us == Position.WHITE ? GameState.BLACK_WIN : GameState.WHITE_WIN;
+                break;
+            }
+            if (gameRules.isStalemate(player, position) || KeyHistory.isFiftyMoveDraw(position)
+                    || history.isThreefold(position) || isInsufficientMaterial(position)
+                    || ply == maxPlies) {
+                outcome = GameState.DRAW;
+                break;
+            }
+
+            MoveChooser chooser = choosers[us];
+            int move = searchPool.submit(() -> chooser.chooseMove(position, history)).get();
+            if (move == Move.NONE || !MoveGenerator.isLegal(position, move, buffer)) {
+                // An illegal move forfeits the game
+                outcome = us == Position.WHITE ? GameState.BLACK_WIN : GameState.WHITE_WIN;
+                break;
+            }
+            history.push(position.getKey());
+            position.makeMove(move);
+            ply++;
+        }
+
+        synchronized (this) {
+            plies += ply;
+        }
+        if (outcome == GameState.DRAW || firstIsWhite) {
+            return outcome;
+        }
+        return outcome == GameState.WHITE_WIN ? GameState.BLACK_WIN : GameState.WHITE_WIN;
+    }
+
+    // Bare kings, or a single bishop or knight against a bare king
+    private static boolean isInsufficientMaterial(Position position) {
+        long heavy = 0;
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            heavy |= position.getPieces(color, Position.PAWN) | position.getPieces(color, Position.ROOK)
+                | position.getPieces(color, Position.QUEEN);
+        }
+        return heavy == 0 && Long.bitCount(position.getOccupied()) <= 3;
+    }
+
+    private void record(GameState outcome) {
+        Result result;
+        synchronized (this) {
+            if (outcome == GameState.WHITE_WIN) {
+                wins++;
+            } else if (outcome == GameState.BLACK_WIN) {
+                losses++;
+            } else {
+                draws++;
+            }
+            result = snapshot();
+        }
+        if (listener != null) {
+            listener.accept(result);
+        }
+    }
+
+    private synchronized boolean isDecided() {
+        return sprt != null && snapshot().getDecision() != Sprt.Decision.CONTINUE;
+    }
+
+    private synchronized Result snapshot() {
+        return new Result(wins, draws, losses, plies, (System.nanoTime() - startNanos) / 1_000_000L, sprt);
+    }
+
+    // Plays UCI moves from the start position; FENs are kept as they are
+    private String toFen(String opening) {
+        if (opening.indexOf('/') >= 0) {
+            return Position.fromFen(opening).toFen();
+        }
+        Position position = Position.fromFen(Position.START_FEN);
+        for (String text : opening.trim().split("\\s+")) {
+            if (text.isEmpty()) {
+                continue;
+            }
+            int move = gameRules.parseMove(position, text);
+            if (move == Move.NONE) {
+                throw new IllegalArgumentException("Illegal move " + text + " in opening " + opening);
+            }
+            position.makeMove(move);
+        }
+        return position.toFen();
+    }
+
+    /**
+     * Match standing from the first chooser's point of view, with the Elo
+     * difference, its 95% confidence margin and the SPRT state.
+     */
+    public static class Result {
+        private final long wins;
+        private final long draws;
+        private final long losses;
+        private final long plies;
+        private final long elapsedMillis;
+        private final Sprt sprt;
+
+        Result(long wins, long draws, long losses, long plies, long elapsedMillis, Sprt sprt) {
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+            this.plies = plies;
+            this.elapsedMillis = elapsedMillis;
+            this.sprt = sprt;
+        }
+
+        public long getWins() {
+            return wins;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getLosses() {
+            return losses;
+        }
+
+        public long getGames() {
+            return wins + draws + losses;
+        }
+
+        public double getScore() {
+            return getGames() == 0 ? 0.5 : (wins + draws / 2.0) / getGames();
+        }
+
+        public double getElo() {
+            return Sprt.elo(getScore());
+        }
+
+        // Half the width of the 95% confidence interval, in Elo
+        public double getEloMargin() {
+            long games = getGames();
+            if (games == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double score = getScore();
+            double variance = (wins * sq(1 - score) + draws * sq(0.5 - score) + losses * sq(score)) / games;
+            double deviation = 1.96 * Math.sqrt(variance / games);
+            return (Sprt.elo(score + deviation) - Sprt.elo(score - deviation)) / 2;
+        }
+
+        public double getLlr() {
+            return sprt != null ? sprt.llr(wins, draws, losses) : 0;
+        }
+
+        public Sprt.Decision getDecision() {
+            return sprt != null ? sprt.decide(getLlr()) : Sprt.Decision.CONTINUE;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getGamesPerHour() {
+            return elapsedMillis > 0 ? getGames() * 3_600_000.0 / elapsedMillis : 0;
+        }
+
+        public double getAveragePlies() {
+            return getGames() > 0 ? (double) plies / getGames() : 0;
+        }
+
+        private static double sq(double value) {
+            return value * value;
+        }
+
+        @Override
+        public String toString() {
+            String text = String.format("%,d games (+%d =%d -%d), Elo %+.1f +/- %.1f, %.0f plies/game, %,.0f games/hour",
+                getGames(), wins, draws, losses, getElo(), getEloMargin(), getAveragePlies(), getGamesPerHour());
+            if (sprt != null) {
+                text += String.format(", LLR %.2f [%.2f, %.2f] %s", getLlr(), sprt.getLowerBound(),
+                    sprt.getUpperBound(), getDecision());
+            }
+            return text;
+        }
+    }
+}
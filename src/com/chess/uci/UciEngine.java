@@ -0,0 +1,475 @@
+package com.chess.uci;
+
+import com.chess.board.KeyHistory;
+import com.chess.board.Move;
+import com.chess.board.MoveGenerator;
+import com.chess.board.Position;
+import com.chess.book.OpeningBook;
+import com.chess.book.PolyglotKey;
+import com.chess.engine.ParallelSearch;
+import com.chess.engine.Search;
+import com.chess.engine.SearchLimits;
+import com.chess.engine.SearchResult;
+import com.chess.engine.TranspositionTable;
+import com.chess.game.GameRules;
+import com.chess.tablebase.Tablebases;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Universal Chess Interface front-end over stdin/stdout. Commands are read on
+ * the calling thread and "go" searches on its own thread, so "stop" and
+ * "isready" are answered while a search runs. Moves received from the GUI are
+ * checked with GameRules before they are played.
+ */
+public class UciEngine {
+    private static final String NAME = "Chess-game-JAVA";
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_HASH_MB = 8192;
+    private static final int MAX_THREADS = 256;
+    // Kept back from every clock-based budget for engine and GUI latency
+    private static final long MOVE_OVERHEAD_MILLIS = 30;
+    // Assumed number of moves left when the GUI does not send movestogo
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final GameRules gameRules = new GameRules();
+    private final Position position = Position.fromFen(Position.START_FEN);
+    // Positions the GUI's move list went through, so the search sees repetitions
+    private final KeyHistory history = new KeyHistory();
+    private final Object searchLock = new Object();
+    private ParallelSearch search;
+    private Thread searchThread;
+    private int hashMegabytes = DEFAULT_HASH_MB;
+    private int threads = 1;
+    // Set by "go infinite" and "go ponder": bestmove waits for "stop"
+    private boolean holdBestMove;
+    // Time budget of a "go ponder" search, which starts counting on "ponderhit"
+    private long ponderBudgetMillis;
+    // Consulted before every search; null when no book is configured
+    private OpeningBook book;
+    private String bookPath = "";
+    private PolyglotKey polyglotKey;
+    private final Random bookRandom = new Random();
+    // Endgame tables probed before every search; null when none are loaded
+    private Tablebases tablebases;
+
+    public UciEngine(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+        createSearch();
+    }
+
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+        search.shutdown();
+        if (book != null) {
+            book.close();
+        }
+    }
+
+    // Returns false on "quit"
+    boolean handle(String line) {
+        if (line.isEmpty()) {
+            return true;
+        }
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author rayenmeddeb");
+                send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Book type string default <empty>");
+                send("option name BookKeys type string default <empty>");
+                send("option name Tablebases type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "ucinewgame":
+                stopSearch();
+                search.getTable().clear();
+                position.loadFen(Position.START_FEN);
+                history.clear();
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(tokens);
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "quit":
+                return false;
+            default:
+                // Unknown commands are ignored, as the protocol requires
+                break;
+        }
+        return true;
+    }
+
+    private void setOption(String[] tokens) {
+        String name = "";
+        String value = "";
+        for (int i = 1; i < tokens.length; i++) {
+            if (tokens[i].equals("name") && i + 1 < tokens.length) {
+                name = tokens[i + 1];
+            } else if (tokens[i].equals("value") && i + 1 < tokens.length) {
+                // Paths may contain spaces, so the value runs to the end of the line
+                value = String.join(" ", Arrays.copyOfRange(tokens, i + 1, tokens.length));
+                break;
+            }
+        }
+        if (name.equalsIgnoreCase("Book") || name.equalsIgnoreCase("BookKeys")) {
+            setBookOption(name, value);
+            return;
+        }
+        if (name.equalsIgnoreCase("Tablebases")) {
+            setTablebases(value);
+            return;
+        }
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                hashMegabytes = Math.max(1, Math.min(Integer.parseInt(value), MAX_HASH_MB));
+                recreateSearch();
+            } else if (name.equalsIgnoreCase("Threads")) {
+                threads = Math.max(1, Math.min(Integer.parseInt(value), MAX_THREADS));
+                recreateSearch();
+            } else {
+                send("info string unknown option " + name);
+            }
+        } catch (NumberFormatException e) {
+            send("info string invalid value " + value + " for " + name);
+        }
+    }
+
+    // Book is the .bin file; BookKeys the Polyglot random numbers, needed for books from other programs
+    private void setBookOption(String name, String value) {
+        boolean empty = value.isEmpty() || value.equals("<empty>");
+        try {
+            if (name.equalsIgnoreCase("BookKeys")) {
+                polyglotKey = empty ? null : PolyglotKey.load(Path.of(value));
+            } else {
+                bookPath = empty ? "" : value;
+            }
+            openBook();
+        } catch (IOException | IllegalArgumentException e) {
+            send("info string cannot load " + name + " " + value + ": " + e.getMessage());
+        }
+    }
+
+    // The directory holding the .wdl and .dtm files written by GenerateTablebases
+    private void setTablebases(String value) {
+        tablebases = null;
+        if (value.isEmpty() || value.equals("<empty>")) {
+            return;
+        }
+        try {
+            tablebases = Tablebases.open(Path.of(value));
+            send("info string loaded " + tablebases.getTables().size() + " tablebases");
+        } catch (IOException | IllegalArgumentException e) {
+            send("info string cannot load Tablebases " + value + ": " + e.getMessage());
+        }
+    }
+
+    private void openBook() throws IOException {
+        if (book != null) {
+            book.close();
+            book = null;
+        }
+        if (!bookPath.isEmpty()) {
+            book = polyglotKey != null
+                ? OpeningBook.open(Path.of(bookPath), polyglotKey)
+                : OpeningBook.open(Path.of(bookPath));
+        }
+    }
+
+    private void recreateSearch() {
+        search.shutdown();
+        createSearch();
+    }
+
+    private void createSearch() {
+        search = new ParallelSearch(threads, new TranspositionTable(hashMegabytes));
+        search.setListener(this::sendInfo);
+    }
+
+    // position [startpos | fen <fen>] [moves <move>...]
+    private void setPosition(String[] tokens) {
+        int index = 1;
+        String fen;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            fen = Position.START_FEN;
+            index = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder text = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                text.append(tokens[index]).append(' ');
+            }
+            fen = text.toString();
+        } else {
+            send("info string expected startpos or fen");
+            return;
+        }
+
+        history.clear();
+        try {
+            position.loadFen(fen);
+        } catch (IllegalArgumentException e) {
+            send("info string invalid fen " + fen.trim());
+            position.loadFen(Position.START_FEN);
+            return;
+        }
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            for (index++; index < tokens.length; index++) {
+                int move = gameRules.parseMove(position, tokens[index]);
+                if (move == Move.NONE) {
+                    send("info string illegal move " + tokens[index]);
+                    return;
+                }
+                history.push(position.getKey());
+                position.makeMove(move);
+            }
+        }
+    }
+
+    private void go(String[] tokens) {
+        SearchLimits limits = SearchLimits.infinite();
+        long clock = 0;
+        long increment = 0;
+        int movesToGo = 0;
+        boolean hold = false;
+        boolean ponder = false;
+        boolean infinite = false;
+        int us = position.getSideToMove();
+
+        for (int i = 1; i < tokens.length; i++) {
+            String token = tokens[i];
+            boolean hasValue = i + 1 < tokens.length;
+            try {
+                switch (token) {
+                    case "infinite":
+                        hold = true;
+                        infinite = true;
+                        break;
+                    case "ponder":
+                        hold = true;
+                        ponder = true;
+                        break;
+                    case "depth":
+                        if (hasValue) limits.setDepth(Integer.parseInt(tokens[++i]));
+                        break;
+                    case "nodes":
+                        if (hasValue) limits.setNodes(Long.parseLong(tokens[++i]));
+                        break;
+                    case "movetime":
+                        if (hasValue) limits.setTimeMillis(
+                            Math.max(1, Long.parseLong(tokens[++i]) - MOVE_OVERHEAD_MILLIS));
+                        break;
+                    case "wtime":
+                    case "btime":
+                        if (hasValue) {
+                            long value = Long.parseLong(tokens[++i]);
+                            if (token.equals(us == Position.WHITE ? "wtime" : "btime")) clock = value;
+                        }
+                        break;
+                    case "winc":
+                    case "binc":
+                        if (hasValue) {
+                            long value = Long.parseLong(tokens[++i]);
+                            if (token.equals(us == Position.WHITE ? "winc" : "binc")) increment = value;
+                        }
+                        break;
+                    case "movestogo":
+                        if (hasValue) movesToGo = Integer.parseInt(tokens[++i]);
+                        break;
+                    default:
+                        break;
+                }
+            } catch (NumberFormatException e) {
+                send("info string invalid value for " + token);
+            }
+        }
+
+        // A book move is answered at once, without starting a search
+        if (book != null && !hold) {
+            int bookMove = book.pickMove(position, bookRandom);
+            if (bookMove != Move.NONE) {
+                send("info string book move");
+                send("bestmove " + Move.toString(bookMove));
+                return;
+            }
+        }
+
+        // So is a position the endgame tables hold, with the exact score
+        if (tablebases != null && !hold) {
+            int tablebaseMove = tablebases.bestMove(position);
+            if (tablebaseMove != Move.NONE) {
+                sendTablebaseInfo(tablebaseMove);
+                send("bestmove " + Move.toString(tablebaseMove));
+                return;
+            }
+        }
+
+        if (clock > 0 && limits.getTimeMillis() == 0 && !infinite) {
+            long budget = clock / (movesToGo > 0 ? movesToGo : DEFAULT_MOVES_TO_GO) + increment * 3 / 4;
+            limits.setTimeMillis(Math.max(1, Math.min(budget, clock - MOVE_OVERHEAD_MILLIS)));
+        }
+        // Pondering is on the opponent's time: the budget only applies from ponderhit
+        ponderBudgetMillis = ponder && !infinite ? limits.getTimeMillis() : 0;
+        if (ponder) {
+            limits.setTimeMillis(0);
+        }
+
+        Position root = new Position();
+        root.copyFrom(position);
+        KeyHistory rootHistory = new KeyHistory();
+        rootHistory.copyFrom(history);
+        synchronized (searchLock) {
+            holdBestMove = hold;
+        }
+        searchThread = new Thread(() -> runSearch(root, rootHistory, limits), "uci-search");
+        searchThread.start();
+    }
+
+    private void runSearch(Position root, KeyHistory rootHistory, SearchLimits limits) {
+        SearchResult result = search.search(root, rootHistory, limits);
+        int bestMove = result.getBestMove();
+        if (bestMove == Move.NONE) {
+            // Stopped before the first iteration finished: any legal move will do
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            if (MoveGenerator.generateLegalMoves(root, moves) > 0) {
+                bestMove = moves[0];
+            }
+        }
+
+        synchronized (searchLock) {
+            while (holdBestMove) {
+                try {
+                    searchLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        send("bestmove " + Move.toString(bestMove));
+    }
+
+    // The opponent played the expected move: the search goes on as a normal
+    // one, and is stopped once the budget computed at "go" has run out
+    private void ponderHit() {
+        Thread thread = searchThread;
+        ParallelSearch running = search;
+        long budget = ponderBudgetMillis;
+        releaseBestMove();
+        if (thread == null || budget == 0) {
+            return;
+        }
+        Thread clock = new Thread(() -> {
+            try {
+                thread.join(budget);
+                while (thread.isAlive()) {
+                    running.stop();
+                    thread.join(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "uci-ponder-clock");
+        clock.setDaemon(true);
+        clock.start();
+    }
+
+    private void releaseBestMove() {
+        synchronized (searchLock) {
+            holdBestMove = false;
+            searchLock.notifyAll();
+        }
+    }
+
+    // The search thread may not have entered the search yet, so the stop
+    // request is repeated until it has finished and sent its bestmove
+    private void stopSearch() {
+        if (searchThread == null) {
+            return;
+        }
+        releaseBestMove();
+        try {
+            while (searchThread.isAlive()) {
+                search.stop();
+                searchThread.join(1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searchThread = null;
+    }
+
+    private void sendInfo(SearchResult result) {
+        StringBuilder info = new StringBuilder("info depth ").append(result.getDepth());
+        int score = result.getScore();
+        if (result.isMate()) {
+            int plies = Search.MATE - Math.abs(score);
+            info.append(" score mate ").append(score > 0 ? (plies + 1) / 2 : -(plies / 2));
+        } else {
+            info.append(" score cp ").append(score);
+        }
+        info.append(" nodes ").append(result.getNodes())
+            .append(" nps ").append(result.getNodesPerSecond())
+            .append(" time ").append(result.getTimeMillis())
+            .append(" hashfull ").append(search.getTable().hashfull())
+            .append(" pv ").append(result.getPrincipalVariationString());
+        send(info.toString());
+    }
+
+    private void sendTablebaseInfo(int move) {
+        int wdl = tablebases.probeWdl(position);
+        int plies = tablebases.probeDtm(position);
+        String score;
+        if (wdl == Tablebases.DRAW) {
+            score = "cp 0";
+        } else if (plies < 0) {
+            // Only the .wdl files are loaded, so the distance is not known
+            score = "cp " + (wdl == Tablebases.WIN ? Search.MATE / 2 : -Search.MATE / 2);
+        } else {
+            score = "mate " + (wdl == Tablebases.WIN ? (plies + 1) / 2 : -(plies / 2));
+        }
+        send("info depth 0 score " + score + " pv " + Move.toString(move) + " string tablebase move");
+    }
+
+    private void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    public static void main(String[] args) throws IOException {
+        new UciEngine(new BufferedReader(new InputStreamReader(System.in)), System.out).run();
+    }
+}
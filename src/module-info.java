@@ -1,12 +1,9 @@
 /**
- * 
- */
-/**
- * 
+ * Game model, rules, move generation and search. Nothing here depends on
+ * java.desktop, so the module runs headless; the Swing client is chess_ui.
  */
 module chess_game {
-    requires transitive java.desktop;
-    requires java.base;
+    requires jdk.httpserver;
 
     exports com.chess.board;
     exports com.chess.game;
@@ -14,4 +11,13 @@ module chess_game {
     exports com.chess.players;
     exports com.chess.utils;
     exports com.chess.patterns;
-}
\ No newline at end of file
+    exports com.chess.engine;
+    exports com.chess.tools;
+    exports com.chess.uci;
+    exports com.chess.pgn;
+    exports com.chess.db;
+    exports com.chess.book;
+    exports com.chess.tablebase;
+    exports com.chess.tournament;
+    exports com.chess.server;
+}
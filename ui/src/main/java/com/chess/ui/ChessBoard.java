@@ -0,0 +1,353 @@
+package com.chess.ui;
+
+import com.chess.board.Move;
+import com.chess.board.Position;
+import com.chess.board.Square;
+import com.chess.db.GameDatabase;
+import com.chess.db.MoveStatistics;
+import com.chess.game.Game;
+import com.chess.game.GameState;
+import com.chess.patterns.Observer;
+import com.chess.pieces.Piece;
+import com.chess.players.Player;
+
+import javax.swing.*;
+import javax.swing.border.LineBorder;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+
+// Swing view of a Game: draws its squares and turns clicks into moves
+public final class ChessBoard extends JPanel implements Observer {
+    private static final long serialVersionUID = 1L;
+    private static final int BOARD_SIZE = 8;
+    private static final int SQUARE_SIZE = 80;
+    public static final Color LIGHT_SQUARE = new Color(238, 238, 210);
+    public static final Color DARK_SQUARE = new Color(118, 150, 86);
+    public static final Color SELECTED_SQUARE = new Color(186, 202, 68);
+    private static final Color BOARD_BORDER = new Color(76, 76, 76);
+    private static final Color OVERLAY_BG = new Color(0, 0, 0, 180);
+    private static final Color WIN_TEXT_COLOR = new Color(255, 215, 0);
+    private static final Color BOOK_MOVE_COLOR = new Color(40, 90, 200, 110);
+    private static final int BOOK_MOVES_SHOWN = 3;
+
+    // Swing serialization is never used here; the model is not carried along
+    private final transient Game game;
+    private transient Square selectedSquare;
+    private transient GameDatabase database;
+    // Looked up once per move, not on every repaint
+    private transient List<MoveStatistics> moveStatistics = Collections.emptyList();
+
+    // Registers the board with the game once it is fully built
+    public static ChessBoard create(Game game) {
+        ChessBoard board = new ChessBoard(game);
+        game.addObserver(board);
+        return board;
+    }
+
+    private ChessBoard(Game game) {
+        this.game = game;
+
+        int boardPixelSize = BOARD_SIZE * SQUARE_SIZE;
+        setPreferredSize(new Dimension(boardPixelSize + 40, boardPixelSize + 40));
+        setLayout(null); // Using null layout for custom positioning
+        setBorder(new LineBorder(BOARD_BORDER, 20));
+        setBackground(BOARD_BORDER);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                // Adjust for border
+                int adjustedX = e.getX() - 20;
+                int adjustedY = e.getY() - 20;
+
+                if (adjustedX >= 0 && adjustedX < boardPixelSize &&
+                    adjustedY >= 0 && adjustedY < boardPixelSize) {
+                    int row = adjustedY / SQUARE_SIZE;
+                    int col = adjustedX / SQUARE_SIZE;
+                    handleSquareClick(row, col);
+                }
+            }
+        });
+    }
+
+    private void handleSquareClick(int row, int col) {
+        Square clickedSquare = game.getSquare(row, col);
+
+        // Don't allow moves if game is over
+        if (game.isOver()) {
+            return;
+        }
+
+        if (selectedSquare == null) {
+            if (clickedSquare.getPiece() != null && 
+                clickedSquare.getPiece().getPlayer() == game.getCurrentPlayer()) {
+                selectedSquare = clickedSquare;
+                selectedSquare.setSelected(true);
+            }
+        } else {
+            // Cleared before the move, whose observer update must find nothing selected
+            Square from = selectedSquare;
+            clearSelection();
+            if (game.isValidMove(from, clickedSquare)) {
+                if (game.wouldLeaveKingInCheck(from, clickedSquare)) {
+                    JOptionPane.showMessageDialog(this, 
+                        "Invalid move: Would leave your king in check!", 
+                        "Invalid Move", 
+                        JOptionPane.WARNING_MESSAGE);
+                } else if (game.isPromotion(from, clickedSquare)) {
+                    game.makeMove(from, clickedSquare, choosePromotion());
+                } else {
+                    game.makeMove(from, clickedSquare);
+                }
+            }
+        }
+        repaint();
+    }
+
+    private void clearSelection() {
+        if (selectedSquare != null) {
+            selectedSquare.setSelected(false);
+            selectedSquare = null;
+        }
+    }
+
+    // Asks which piece a pawn promotes to; closing the dialog picks the queen
+    private int choosePromotion() {
+        String[] names = {"Queen", "Rook", "Bishop", "Knight"};
+        int[] types = {Position.QUEEN, Position.ROOK, Position.BISHOP, Position.KNIGHT};
+        int choice = JOptionPane.showOptionDialog(this, "Promote to:", "Promotion",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, names, names[0]);
+        return types[Math.max(choice, 0)];
+    }
+
+    @Override
+    public void update() {
+        // A reset or loaded position leaves no piece to move from
+        clearSelection();
+        refreshMoveStatistics();
+        repaint();
+    }
+
+    // Shows how often each move was played from the current position; null turns it off
+    public void setDatabase(GameDatabase database) {
+        this.database = database;
+        refreshMoveStatistics();
+        repaint();
+    }
+
+    public List<MoveStatistics> getMoveStatistics() {
+        return moveStatistics;
+    }
+
+    private void refreshMoveStatistics() {
+        moveStatistics = database != null
+            ? database.getStatistics(game.getPositionKey())
+            : Collections.<MoveStatistics>emptyList();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2d = (Graphics2D) g;
+
+        // Enable antialiasing
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        // Draw coordinates
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+
+        // Draw column coordinates (a-h)
+        for (int col = 0; col < BOARD_SIZE; col++) {
+            String letter = String.valueOf((char)('a' + col));
+            g2d.drawString(letter, 20 + col * SQUARE_SIZE + SQUARE_SIZE/2 - 5, BOARD_SIZE * SQUARE_SIZE + 35);
+        }
+
+        // Draw row coordinates (1-8)
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            String number = String.valueOf(8 - row);
+            g2d.drawString(number, 5, 20 + row * SQUARE_SIZE + SQUARE_SIZE/2 + 5);
+        }
+
+        // Draw the board and pieces
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                drawSquare(g2d, game.getSquare(row, col), 20 + col * SQUARE_SIZE, 20 + row * SQUARE_SIZE, SQUARE_SIZE);
+            }
+        }
+
+        drawBookMoves(g2d);
+
+        // Draw game over overlay if game is finished
+        if (game.isOver()) {
+            drawGameOverOverlay(g2d);
+        }
+    }
+
+    private void drawSquare(Graphics2D g2d, Square square, int x, int y, int size) {
+        // Draw square background
+        g2d.setColor(square.isLight() ? LIGHT_SQUARE : DARK_SQUARE);
+        if (square.isSelected()) {
+            g2d.setColor(SELECTED_SQUARE);
+        }
+        g2d.fillRect(x, y, size, size);
+        
+        // Add subtle border
+        g2d.setColor(square.isLight() ? DARK_SQUARE.darker() : LIGHT_SQUARE.darker());
+        g2d.setStroke(new BasicStroke(1.0f));
+        g2d.drawRect(x, y, size, size);
+        
+        // Draw piece with shadow effect if present
+        Piece piece = square.getPiece();
+        if (piece != null) {
+            // Draw shadow
+            g2d.setColor(new Color(0, 0, 0, 30));
+            drawPiece(g2d, piece, x + 2, y + 2, size);
+            
+            // Draw actual piece
+            drawPiece(g2d, piece, x, y, size);
+        }
+    }
+
+    private void drawPiece(Graphics g, Piece piece, int x, int y, int size) {
+        Player player = piece.getPlayer();
+        BufferedImage image = PieceSprites.getInstance().getImage(player, piece.getName(), size);
+        if (image != null) {
+            g.drawImage(image, x, y, null);
+        } else {
+            // Fallback drawing if image fails to load
+            g.setColor(player == Player.WHITE ? Color.WHITE : Color.BLACK);
+            g.fillOval(x + 10, y + 10, size - 20, size - 20);
+            g.setColor(player == Player.WHITE ? Color.BLACK : Color.WHITE);
+            g.drawOval(x + 10, y + 10, size - 20, size - 20);
+            // Draw piece type letter
+            g.setFont(new Font("Arial", Font.BOLD, size / 2));
+            g.drawString(piece.getName().substring(0, 1), x + size/3, y + 2*size/3);
+        }
+    }
+
+    // The most played database moves as lines, thicker for a larger share of the games
+    private void drawBookMoves(Graphics2D g2d) {
+        int total = 0;
+        for (MoveStatistics statistics : moveStatistics) {
+            total += statistics.getGames();
+        }
+        for (int i = 0; i < Math.min(BOOK_MOVES_SHOWN, moveStatistics.size()); i++) {
+            MoveStatistics statistics = moveStatistics.get(i);
+            int from = Move.from(statistics.getMove());
+            int to = Move.to(statistics.getMove());
+            float width = 4 + 12f * statistics.getGames() / total;
+            g2d.setColor(BOOK_MOVE_COLOR);
+            g2d.setStroke(new BasicStroke(width, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+            g2d.drawLine(squareCenter(Position.colOf(from)), squareCenter(Position.rowOf(from)),
+                squareCenter(Position.colOf(to)), squareCenter(Position.rowOf(to)));
+            g2d.fillOval(squareCenter(Position.colOf(to)) - (int) width, squareCenter(Position.rowOf(to)) - (int) width,
+                (int) width * 2, (int) width * 2);
+        }
+    }
+
+    private static int squareCenter(int index) {
+        return 20 + index * SQUARE_SIZE + SQUARE_SIZE / 2;
+    }
+
+    private void drawGameOverOverlay(Graphics2D g2d) {
+        int boardWidth = BOARD_SIZE * SQUARE_SIZE + 40;  // Including border
+        int boardHeight = BOARD_SIZE * SQUARE_SIZE + 40;
+
+        // Draw semi-transparent overlay
+        g2d.setColor(OVERLAY_BG);
+        g2d.fillRect(0, 0, boardWidth, boardHeight);
+
+        // Prepare the message
+        String message;
+        if (game.getState() == GameState.WHITE_WIN) {
+            message = "CHECKMATE!\nWhite Wins!";
+        } else if (game.getState() == GameState.BLACK_WIN) {
+            message = "CHECKMATE!\nBlack Wins!";
+        } else if (game.getState() == GameState.DRAW) {
+            message = "DRAW!\nGame Drawn";
+        } else {
+            message = "STALEMATE!\nGame Drawn";
+        }
+
+        // Draw message background
+        int messageX = boardWidth / 2;
+        int messageY = boardHeight / 2;
+        Font titleFont = new Font("Arial", Font.BOLD, 36);
+        Font subtitleFont = new Font("Arial", Font.BOLD, 24);
+
+        String[] lines = message.split("\n");
+
+        // Draw the main title
+        g2d.setFont(titleFont);
+        FontMetrics fmTitle = g2d.getFontMetrics();
+        Rectangle2D titleBounds = fmTitle.getStringBounds(lines[0], g2d);
+
+        // Draw the subtitle
+        g2d.setFont(subtitleFont);
+        FontMetrics fmSubtitle = g2d.getFontMetrics();
+        Rectangle2D subtitleBounds = fmSubtitle.getStringBounds(lines[1], g2d);
+
+        // Calculate total height
+        double totalHeight = titleBounds.getHeight() + subtitleBounds.getHeight() + 10; // 10px spacing
+
+        // Draw background rectangle
+        double maxWidth = Math.max(titleBounds.getWidth(), subtitleBounds.getWidth());
+        int padding = 30;
+        g2d.setColor(new Color(40, 40, 40, 230));
+        g2d.fillRoundRect(
+            (int)(messageX - maxWidth/2 - padding),
+            (int)(messageY - totalHeight/2 - padding),
+            (int)(maxWidth + padding*2),
+            (int)(totalHeight + padding*2),
+            20, 20
+        );
+
+        // Draw the text
+        g2d.setColor(WIN_TEXT_COLOR);
+
+        // Draw title
+        g2d.setFont(titleFont);
+        g2d.drawString(lines[0], 
+            (int)(messageX - titleBounds.getWidth()/2),
+            (int)(messageY - totalHeight/2 + titleBounds.getHeight())
+        );
+
+        // Draw subtitle
+        g2d.setFont(subtitleFont);
+        g2d.drawString(lines[1],
+            (int)(messageX - subtitleBounds.getWidth()/2),
+            (int)(messageY - totalHeight/2 + titleBounds.getHeight() + 10 + subtitleBounds.getHeight())
+        );
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public void loadFen(String fen) {
+        game.loadFen(fen);
+    }
+
+    public String toFen() {
+        return game.toFen();
+    }
+
+    public Square[][] getSquares() {
+        return game.getSquares();
+    }
+
+    public Position getPosition() {
+        return game.getPosition();
+    }
+
+    public long getPositionKey() {
+        return game.getPositionKey();
+    }
+}
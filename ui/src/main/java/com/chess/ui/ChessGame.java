@@ -1,29 +1,42 @@
-package com.chess.game;
-
-import com.chess.board.ChessBoard;
+package com.chess.ui;
+
+import com.chess.board.KeyHistory;
+import com.chess.board.Position;
+import com.chess.db.GameDatabase;
+import com.chess.db.MoveStatistics;
+import com.chess.game.Game;
+import com.chess.game.GameState;
+import com.chess.pgn.PgnWriter;
+import com.chess.pgn.San;
 import com.chess.pieces.Piece;
 import com.chess.players.Player;
-import com.chess.utils.GameState;
 import com.chess.patterns.Observer;
 
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-public class ChessGame implements Observer {
-    private static ChessGame instance;
-    private GameState currentState;
+// Main window around one Game; all game state lives in the model
+public final class ChessGame implements Observer {
+    private final Game game;
     private ChessBoard board;
-    private Player currentPlayer;
     private JFrame mainFrame;
     private JLabel statusLabel;
+    private JLabel explorerLabel;
     private JPanel mainPanel;
     private JPanel leftPanel;
     private JPanel rightPanel;
-    private List<Piece> whiteCapturedPieces = new ArrayList<>();
-    private List<Piece> blackCapturedPieces = new ArrayList<>();
 
     // Simplified color palette
     private static final Color PRIMARY_COLOR = new Color(240, 240, 240);
@@ -31,7 +44,9 @@ public class ChessGame implements Observer {
     private static final Color TEXT_COLOR = new Color(50, 50, 50);
     private static final Color BORDER_COLOR = new Color(150, 150, 150);
 
-    private ChessGame() {
+    public ChessGame(Game game) {
+        this.game = game;
+
         try {
             // Set custom look and feel
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -64,6 +79,18 @@ public class ChessGame implements Observer {
         newGameButton.addActionListener(e -> resetGame());
         topPanel.add(newGameButton);
 
+        JButton savePgnButton = new JButton("Save PGN");
+        savePgnButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        savePgnButton.setBackground(ACCENT_COLOR);
+        savePgnButton.setForeground(TEXT_COLOR);
+        savePgnButton.setFocusPainted(false);
+        savePgnButton.setBorder(BorderFactory.createCompoundBorder(
+            new SoftBevelBorder(SoftBevelBorder.RAISED),
+            BorderFactory.createEmptyBorder(5, 15, 5, 15)
+        ));
+        savePgnButton.addActionListener(e -> savePgn());
+        topPanel.add(savePgnButton);
+
         mainFrame.add(topPanel, BorderLayout.NORTH);
 
         // Create main panel with gradient background
@@ -87,8 +114,8 @@ public class ChessGame implements Observer {
         createSidePanels();
 
         // Create the chess board
-        board = new ChessBoard();
-        board.addObserver(this);
+        board = ChessBoard.create(game);
+        game.addObserver(this);
 
         // Create center panel with gradient background
         JPanel centerPanel = new JPanel(new BorderLayout(15, 15)) {
@@ -120,20 +147,11 @@ public class ChessGame implements Observer {
         createStatusPanel();
 
         mainFrame.add(mainPanel, BorderLayout.CENTER);
-        currentState = GameState.IN_PROGRESS;
-        currentPlayer = Player.WHITE;
         mainFrame.pack();
         mainFrame.setLocationRelativeTo(null);
         mainFrame.setVisible(true);
     }
 
-    public static ChessGame getInstance() {
-        if (instance == null) {
-            instance = new ChessGame();
-        }
-        return instance;
-    }
-
     private JPanel createBoardPanel() {
         JPanel boardPanel = new JPanel(new BorderLayout()) {
             @Override
@@ -207,9 +225,9 @@ public class ChessGame implements Observer {
         // Add crown icon with glow effect for current player
         JLabel turnIndicator = new JLabel("♔");
         turnIndicator.setFont(new Font("Segoe UI Symbol", Font.PLAIN, 24));
-        Color playerColor = currentPlayer == player ? PRIMARY_COLOR : BORDER_COLOR;
+        Color playerColor = game.getCurrentPlayer() == player ? PRIMARY_COLOR : BORDER_COLOR;
         turnIndicator.setForeground(playerColor);
-        if (currentPlayer == player) {
+        if (game.getCurrentPlayer() == player) {
             turnIndicator.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 5));
         }
         namePanel.add(turnIndicator);
@@ -309,6 +327,12 @@ public class ChessGame implements Observer {
         statusLabel.setForeground(TEXT_COLOR);
         statusLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         statusPanel.add(statusLabel);
+        statusPanel.add(Box.createHorizontalGlue());
+
+        explorerLabel = new JLabel();
+        explorerLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        explorerLabel.setForeground(TEXT_COLOR);
+        statusPanel.add(explorerLabel);
 
         mainPanel.add(statusPanel, BorderLayout.SOUTH);
     }
@@ -350,7 +374,8 @@ public class ChessGame implements Observer {
             pieceContainer.setLayout(new BorderLayout());
 
             // Create a label for the piece image
-            JLabel pieceLabel = new JLabel(new ImageIcon(piece.getImage()));
+            JLabel pieceLabel = new JLabel(new ImageIcon(
+                PieceSprites.getInstance().getImage(piece.getPlayer(), piece.getName())));
             pieceLabel.setHorizontalAlignment(SwingConstants.CENTER);
             pieceContainer.add(pieceLabel, BorderLayout.CENTER);
 
@@ -374,12 +399,8 @@ public class ChessGame implements Observer {
         panel.repaint();
     }
 
-    public void switchPlayer() {
-        currentPlayer = (currentPlayer == Player.WHITE) ? Player.BLACK : Player.WHITE;
-        updateStatus();
-    }
-
     private void updateStatus() {
+        GameState currentState = game.getState();
         String status = "<html><div style='text-align: center;'>";
         if (currentState == GameState.CHECK) {
             status += "<span style='color: #ff6b6b;'>Check!</span><br>";
@@ -395,8 +416,13 @@ public class ChessGame implements Observer {
             status += "<span style='color: #ffd32a;'>Game Over - Stalemate!</span>";
             showGameOverDialog("Game Over - It's a draw! (Stalemate)");
             return;
+        } else if (currentState == GameState.DRAW) {
+            String reason = KeyHistory.isFiftyMoveDraw(game.getPosition()) ? "Fifty-move rule" : "Threefold repetition";
+            status += "<span style='color: #ffd32a;'>Game Over - Draw!</span>";
+            showGameOverDialog("Game Over - It's a draw! (" + reason + ")");
+            return;
         }
-        status += currentPlayer + "'s turn</div></html>";
+        status += game.getCurrentPlayer() + "'s turn</div></html>";
         statusLabel.setText(status);
     }
 
@@ -442,7 +468,7 @@ public class ChessGame implements Observer {
             newGameButton.setBackground(ACCENT_COLOR);
             newGameButton.setForeground(TEXT_COLOR);
             newGameButton.setFocusPainted(false);
-            newGameButton.addActionListener(_ -> {
+            newGameButton.addActionListener(e -> {
                 dialog.dispose();
                 resetGame();
             });
@@ -454,7 +480,7 @@ public class ChessGame implements Observer {
             exitButton.setBackground(new Color(255, 107, 107));
             exitButton.setForeground(TEXT_COLOR);
             exitButton.setFocusPainted(false);
-            exitButton.addActionListener(_ -> {
+            exitButton.addActionListener(e -> {
                 dialog.dispose();
                 mainFrame.dispose();
                 System.exit(0);
@@ -477,50 +503,67 @@ public class ChessGame implements Observer {
         });
     }
 
-    public void addCapturedPiece(Piece piece) {
-        if (piece.getPlayer() == Player.WHITE) {
-            blackCapturedPieces.add(piece);
-            updateCapturedPiecesPanel(rightPanel, blackCapturedPieces);
-        } else {
-            whiteCapturedPieces.add(piece);
-            updateCapturedPiecesPanel(leftPanel, whiteCapturedPieces);
-        }
-    }
-
     private void resetGame() {
-        // Reset game state
-        currentPlayer = Player.WHITE;
-        currentState = GameState.IN_PROGRESS;
-        whiteCapturedPieces.clear();
-        blackCapturedPieces.clear();
-
-        // Reset the board
-        board.resetBoard();
-        
-        // Update UI
-        updateCapturedPiecesPanel(leftPanel, whiteCapturedPieces);
-        updateCapturedPiecesPanel(rightPanel, blackCapturedPieces);
-        updateStatus();
-        
+        game.reset();
+
         // Repaint everything
         mainFrame.repaint();
     }
 
-    public Player getCurrentPlayer() {
-        return currentPlayer;
+    // Shows move statistics for the current position from a database built with PgnToDatabase
+    public void setDatabase(GameDatabase database) {
+        board.setDatabase(database);
+        updateExplorer();
     }
 
-    public GameState getCurrentState() {
-        return currentState;
+    private void updateExplorer() {
+        List<MoveStatistics> statistics = board.getMoveStatistics();
+        if (statistics.isEmpty()) {
+            explorerLabel.setText("");
+            return;
+        }
+        Position position = game.getPosition();
+        StringBuilder text = new StringBuilder("<html>");
+        for (int i = 0; i < Math.min(5, statistics.size()); i++) {
+            MoveStatistics move = statistics.get(i);
+            text.append(San.toString(position, move.getMove())).append(' ')
+                .append(move.getGames()).append(" games, ")
+                .append(Math.round(move.getWhiteScore() * 100)).append("% white<br>");
+        }
+        explorerLabel.setText(text.append("</html>").toString());
     }
 
-    public void setGameState(GameState state) {
-        this.currentState = state;
-        updateStatus();
+    // Appends the game to the chosen file, so one file can collect many games
+    private void savePgn() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("games.pgn"));
+        if (chooser.showSaveDialog(mainFrame) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "Casual game");
+        tags.put("Date", LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy.MM.dd")));
+        tags.put("White", "White Player");
+        tags.put("Black", "Black Player");
+        try (PgnWriter writer = new PgnWriter(Files.newBufferedWriter(chooser.getSelectedFile().toPath(),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            writer.write(game, tags);
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(mainFrame, "Could not save the game: " + e.getMessage(),
+                "Save PGN", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    public Game getGame() {
+        return game;
     }
 
     @Override
     public void update() {
+        // Captured pieces are listed under the player who took them
+        updateCapturedPiecesPanel(leftPanel, game.getCapturedPieces(Player.WHITE));
+        updateCapturedPiecesPanel(rightPanel, game.getCapturedPieces(Player.BLACK));
+        updateExplorer();
         updateStatus();
     }
 
@@ -532,8 +575,21 @@ public class ChessGame implements Observer {
             e.printStackTrace();
         }
 
+        // Optional argument: a game database to show move statistics from
+        GameDatabase database = null;
+        if (args.length > 0) {
+            try {
+                database = GameDatabase.open(Path.of(args[0]));
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Could not open " + args[0] + ": " + e.getMessage());
+            }
+        }
+        GameDatabase explorer = database;
         SwingUtilities.invokeLater(() -> {
-            ChessGame.getInstance();
+            ChessGame chessGame = new ChessGame(new Game());
+            if (explorer != null) {
+                chessGame.setDatabase(explorer);
+            }
         });
     }
 }
@@ -0,0 +1,100 @@
+package com.chess.ui;
+
+import com.chess.players.Player;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Piece images decoded once per process and shared by every Piece. Copies
+ * scaled to a square size are made on first use and kept, so drawing a piece
+ * never resamples the source image.
+ */
+public class PieceSprites {
+    private static final String[] TYPES = {"Pawn", "Knight", "Bishop", "Rook", "Queen", "King"};
+
+    // Holder idiom: the images are only read when a sprite is first requested
+    private static class Holder {
+        private static final PieceSprites INSTANCE = new PieceSprites();
+    }
+
+    private final BufferedImage[] images = new BufferedImage[TYPES.length * 2];
+    private final Map<Integer, BufferedImage[]> scaled = new ConcurrentHashMap<>();
+
+    private PieceSprites() {
+        for (int color = 0; color < 2; color++) {
+            for (int type = 0; type < TYPES.length; type++) {
+                images[color * TYPES.length + type] = load((color == 0 ? "W" : "B") + TYPES[type] + ".png");
+            }
+        }
+    }
+
+    public static PieceSprites getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Returns null if the image could not be loaded
+    public BufferedImage getImage(Player player, String name) {
+        return images[indexOf(player, name)];
+    }
+
+    public BufferedImage getImage(Player player, String name, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Sprite size must be positive: " + size);
+        }
+        BufferedImage[] copies = scaled.computeIfAbsent(size, this::scaleAll);
+        return copies[indexOf(player, name)];
+    }
+
+    private BufferedImage[] scaleAll(int size) {
+        BufferedImage[] copies = new BufferedImage[images.length];
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] == null) {
+                continue;
+            }
+            BufferedImage copy = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g2d = copy.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(images[i], 0, 0, size, size, null);
+            g2d.dispose();
+            copies[i] = copy;
+        }
+        return copies;
+    }
+
+    private static int indexOf(Player player, String name) {
+        for (int type = 0; type < TYPES.length; type++) {
+            if (TYPES[type].equals(name)) {
+                return (player == Player.WHITE ? 0 : TYPES.length) + type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece type: " + name);
+    }
+
+    // Images are read from the classpath, falling back to the source tree
+    // when the game is started from an IDE without copied resources
+    private static BufferedImage load(String imageName) {
+        try (InputStream in = PieceSprites.class.getResourceAsStream("/images/" + imageName)) {
+            if (in != null) {
+                return ImageIO.read(in);
+            }
+            File imageFile = new File("ui/src/main/resources/images/" + imageName);
+            if (imageFile.exists()) {
+                return ImageIO.read(imageFile);
+            }
+            System.err.println("Image not found: " + imageName);
+        } catch (IOException e) {
+            System.err.println("Error loading image: " + imageName);
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
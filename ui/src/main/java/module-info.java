@@ -0,0 +1,9 @@
+/**
+ * Swing client for the chess_game model.
+ */
+module chess_ui {
+    requires transitive chess_game;
+    requires transitive java.desktop;
+
+    exports com.chess.ui;
+}